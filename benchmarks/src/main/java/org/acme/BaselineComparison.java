@@ -0,0 +1,83 @@
+package org.acme;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara um resultado do JMH ({@code -rf json}) com o baseline versionado em
+ * {@code baselines/}. Termina com código 1 quando algum benchmark piora mais que a tolerância
+ * (padrão 10%, ou o terceiro argumento em porcentagem) e mais que a soma das margens de erro
+ * das duas medições, para não acusar ruído como regressão. Os benchmarks cuja margem de erro
+ * passa da tolerância são sinalizados, já que neles uma piora real também ficaria escondida.
+ */
+public class BaselineComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BaselineComparison <baseline.json> <resultado.json> [tolerância %]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        int unreliable = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode metric = entry.getValue().get("primaryMetric");
+            double score = metric.get("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-70s %12.3f %s (sem baseline)%n", entry.getKey(), score, metric.get("scoreUnit").asText());
+                continue;
+            }
+            double previous = before.get("primaryMetric").get("score").asDouble();
+            double noise = error(before.get("primaryMetric")) + error(metric);
+            // em throughput maior é melhor; nos demais modos o score é tempo
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+            double change = (score - previous) / previous;
+            boolean worse = higherIsBetter ? change < -tolerance : change > tolerance;
+            boolean regression = worse && Math.abs(score - previous) > noise;
+            if (regression) {
+                regressions++;
+            }
+            // com margem de erro maior que a tolerância a comparação não consegue acusar a piora
+            boolean noisy = noise > tolerance * previous;
+            if (noisy) {
+                unreliable++;
+            }
+            System.out.printf("%-70s %12.3f -> %12.3f %s %+7.1f%%%s%n", entry.getKey(), previous, score,
+                    metric.get("scoreUnit").asText(), change * 100,
+                    regression ? "  REGRESSÃO" : noisy ? "  (ruído ±" + Math.round(noise / previous * 100) + "%)" : "");
+        }
+        if (unreliable > 0) {
+            System.out.println(unreliable + " benchmark(s) com margem de erro acima da tolerância: neles só pioras maiores que o ruído indicado são acusadas");
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) pioraram mais que " + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    // sem repetições suficientes o JMH grava a margem de erro como NaN
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    // chave: nome do benchmark seguido dos parâmetros, ex. SerializationBenchmark.searchCarroResponse{size=10}
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            String name = result.get("benchmark").asText().replace("org.acme.", "");
+            JsonNode params = result.get("params");
+            results.put(params == null ? name : name + params, result);
+        }
+        return results;
+    }
+}
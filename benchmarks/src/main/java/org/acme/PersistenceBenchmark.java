@@ -0,0 +1,115 @@
+package org.acme;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistência e leitura das entidades em um H2 em memória. Fora do Quarkus os métodos
+ * estáticos do Panache não estão disponíveis, então o benchmark usa o EntityManager do
+ * Hibernate, que é o que o Panache chama por baixo. O Hibernate e o H2 levam bem mais tempo
+ * para estabilizar no JIT que os demais benchmarks, daí o aquecimento mais longo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 15, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class PersistenceBenchmark {
+
+    private static final int CARROS = 1_000;
+
+    private SessionFactory sessionFactory;
+
+    private long ultimoCarro;
+
+    private long ultimaFicha;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Carro.class)
+                .addAnnotatedClass(FichaTecnica.class)
+                .addAnnotatedClass(Acessorio.class)
+                .addAnnotatedClass(Fabricante.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                // o import.sql da aplicação está no classpath e não deve ser carregado
+                .setProperty("hibernate.hbm2ddl.import_files", "")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < CARROS; i++) {
+                session.persist(novoCarro(i));
+            }
+        });
+        ultimoCarro = sessionFactory.fromTransaction(session -> session
+                .createSelectionQuery("select max(id) from Carro", Long.class).getSingleResult());
+        ultimaFicha = sessionFactory.fromTransaction(session -> session
+                .createSelectionQuery("select max(id) from FichaTecnica", Long.class).getSingleResult());
+    }
+
+    /**
+     * Remove o que o persist inseriu na iteração; com a tabela crescendo durante toda a execução,
+     * cada iteração mediria um banco maior e o heap cada vez mais cheio.
+     */
+    @TearDown(Level.Iteration)
+    public void removerInseridos() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from Carro where id > ?1").setParameter(1, ultimoCarro).executeUpdate();
+            session.createMutationQuery("delete from FichaTecnica where id > ?1").setParameter(1, ultimaFicha).executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Carro persist() {
+        Carro carro = novoCarro(CARROS);
+        sessionFactory.inTransaction(session -> session.persist(carro));
+        return carro;
+    }
+
+    @Benchmark
+    public Carro findById() {
+        long id = ThreadLocalRandom.current().nextLong(1, CARROS + 1);
+        return sessionFactory.fromTransaction(session -> session.find(Carro.class, id));
+    }
+
+    @Benchmark
+    public List<Carro> findPagina() {
+        return sessionFactory.fromTransaction(session -> session
+                .createSelectionQuery("from Carro where lower(modelo) like ?1 or lower(paisDeMontagem) like ?1 order by id", Carro.class)
+                .setParameter(1, "%modelo 1%")
+                .setMaxResults(20)
+                .getResultList());
+    }
+
+    private static Carro novoCarro(int i) {
+        return new Carro(null, "Modelo " + i, "Modelo " + i + " 1.0 Turbo", LocalDate.of(2020, 1, 1).plusDays(i % 1000),
+                i % 2 == 0 ? "Brasil" : "Argentina", new FichaTecnica("1.0 TSI", "Flex", "Ar-condicionado"));
+    }
+}
@@ -0,0 +1,67 @@
+package org.acme;
+
+import io.quarkus.panache.common.Sort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem das consultas de busca feita a cada requisição: decodificação do cursor, predicado
+ * do keyset, projeção de {@code fields} e o cursor da próxima página.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class SearchQueryBenchmark {
+
+    private static final String FILTER = "lower(modelo) like ?1 or lower(paisDeMontagem) like ?1";
+
+    private String cursor;
+    private Map<String, Object> lastRow;
+
+    @Setup
+    public void setup() {
+        lastRow = Map.of("id", 42L, "modelo", "Polo", "dataDeFabricacao", LocalDate.of(2022, 5, 10));
+        cursor = KeysetCursor.after(lastRow, "dataDeFabricacao", true).encode();
+    }
+
+    @Benchmark
+    public void filtroComKeyset(Blackhole blackhole) {
+        List<Object> params = new ArrayList<>();
+        params.add("%volks%");
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Sort sort = KeysetCursor.sort(after.sort, after.descending);
+        blackhole.consume(after.where(FILTER, params));
+        blackhole.consume(after.params(params));
+        blackhole.consume(sort);
+    }
+
+    @Benchmark
+    public String projecaoFields() {
+        SparseFields sparse = SparseFields.parse("modelo,paisDeMontagem,fichaTecnicaId", SparseFields.CARRO);
+        sparse.require("id", "modelo");
+        return sparse.hql(Carro.class, FILTER);
+    }
+
+    @Benchmark
+    public String proximoCursor() {
+        return KeysetCursor.after(lastRow, "dataDeFabricacao", true).encode();
+    }
+}
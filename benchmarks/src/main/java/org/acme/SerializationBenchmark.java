@@ -0,0 +1,88 @@
+package org.acme;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das respostas de busca com as entidades aninhadas, no mesmo formato do
+ * ObjectMapper do Quarkus (módulos registrados e datas em ISO-8601).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    int size;
+
+    private ObjectMapper mapper;
+    private SearchCarroResponse carros;
+    private SearchAcessorioResponse acessorios;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<Carro> listaCarros = new ArrayList<>();
+        List<Acessorio> listaAcessorios = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            Carro carro = new Carro(i, "Modelo " + i, "Modelo " + i + " 1.0 Turbo Highline", LocalDate.of(2020, 1, 1).plusDays(i),
+                    "Brasil", new FichaTecnica("1.0 TSI 116 cv", "Flex", "Ar-condicionado, direção elétrica, central multimídia"));
+            carro.fichaTecnica.id = i;
+            listaCarros.add(carro);
+
+            Acessorio acessorio = new Acessorio(i, "Acessório " + i, "Descrição do acessório " + i, 2024, 150.0 + i, 45);
+            acessorio.carro = carro;
+            for (long f = 1; f <= 2; f++) {
+                Fabricante fabricante = new Fabricante("Fabricante " + f, "Detalhes do fabricante " + f);
+                fabricante.id = f;
+                acessorio.fabricantes.add(fabricante);
+            }
+            listaAcessorios.add(acessorio);
+        }
+
+        carros = new SearchCarroResponse();
+        carros.Carros = listaCarros;
+        carros.TotalCarros = size;
+        carros.TotalPages = 1;
+        carros.NextCursor = "bW9kZWxvH2FzYx9zH01vZGVsbyAxMB8xMA";
+
+        acessorios = new SearchAcessorioResponse();
+        acessorios.Acessorios = listaAcessorios;
+        acessorios.TotalAcessorios = size;
+        acessorios.TotalPages = 1;
+    }
+
+    @Benchmark
+    public byte[] searchCarroResponse() throws Exception {
+        return mapper.writeValueAsBytes(carros);
+    }
+
+    @Benchmark
+    public byte[] searchAcessorioResponse() throws Exception {
+        return mapper.writeValueAsBytes(acessorios);
+    }
+}
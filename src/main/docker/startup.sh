@@ -0,0 +1,17 @@
+#!/bin/sh
+# Inicia a aplicação (JVM ou nativa, o comando vem nos argumentos) a partir do snapshot do banco
+# gerado no build da imagem. Sem banco em data/ (inclusive com um volume vazio montado ali), o
+# snapshot é copiado e as migrações do Liquibase são puladas, já que ele foi gerado com o mesmo
+# changelog da imagem e já traz os dados iniciais. Um banco já existente, como o de um volume criado
+# por uma versão anterior, ou a falta do snapshot fazem a aplicação passar pelas migrações normalmente;
+# no contexto prod elas não incluem os dados iniciais, então um banco criado assim começa vazio.
+set -e
+if [ ! -f data/carros.mv.db ] && [ -f snapshot/carros.mv.db ]; then
+    # data/ pode já existir vazio (volume recém-criado), então copia o conteúdo do snapshot
+    mkdir -p data
+    cp -r snapshot/. data/
+    if [ -f data/carros.mv.db ]; then
+        export QUARKUS_LIQUIBASE_MIGRATE_AT_START=false
+    fi
+fi
+exec "$@"
@@ -3,18 +3,35 @@ package org.acme;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@NamedEntityGraph(
+        name = Acessorio.GRAPH_CARRO,
+        attributeNodes = @NamedAttributeNode(value = "carro", subgraph = "carro"),
+        subgraphs = @NamedSubgraph(name = "carro", attributeNodes = @NamedAttributeNode("fichaTecnica"))
+)
 public class Acessorio extends PanacheEntityBase {
 
+    public static final String GRAPH_CARRO = "Acessorio.carro";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "acessorio_seq")
+    @SequenceGenerator(name = "acessorio_seq", sequenceName = "acessorio_seq", allocationSize = 50)
     @Schema(readOnly = true, example = "1")
     public Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Schema(readOnly = true, example = "0")
+    public long versao;
+
     @NotBlank(message = "O nome do acessório não pode ser vazio")
     @Size(min = 1, max = 200)
     public String nome;
@@ -38,6 +55,8 @@ public class Acessorio extends PanacheEntityBase {
     public Carro carro;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100) // um lote do streaming (stream.fetch-size) em uma consulta
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "acessorio_fabricante",
             joinColumns = @JoinColumn(name = "acessorio_id"),
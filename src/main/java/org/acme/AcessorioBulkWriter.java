@@ -0,0 +1,224 @@
+package org.acme;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Grava lotes de acessórios em uma transação por lote. As referências (carros, fabricantes e
+ * acessórios existentes) são resolvidas com uma consulta IN cada, e os vínculos da tabela
+ * acessorio_fabricante são regravados com um DELETE em conjunto e INSERTs em batch, em vez
+ * de linha a linha pela coleção da entidade.
+ */
+@ApplicationScoped
+public class AcessorioBulkWriter {
+
+    @Inject
+    ResumoCarroWriter resumoWriter;
+
+    private static final String FABRICANTES_ROLE = Acessorio.class.getName() + ".fabricantes";
+
+    private static final String INSERT_VINCULO = "insert into acessorio_fabricante (acessorio_id, fabricante_id) values (?, ?)";
+
+    /**
+     * Itens sem id são inseridos e itens com id são atualizados, desde que a versão enviada seja
+     * a atual. O resultado de cada item é preenchido em {@code results}, na mesma posição.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void upsert(List<Acessorio> items, List<BulkItemResult> results) {
+        EntityManager em = Acessorio.getEntityManager();
+
+        Set<Long> carroIds = items.stream()
+                .filter(a -> a.carro != null && a.carro.id != null)
+                .map(a -> a.carro.id)
+                .collect(Collectors.toSet());
+        Set<Long> fabricanteIds = items.stream()
+                .flatMap(a -> AcessorioResource.fabricanteIds(a.fabricantes).stream())
+                .collect(Collectors.toSet());
+        Set<Long> acessorioIds = items.stream()
+                .map(a -> a.id)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+
+        Set<Long> carrosExistentes = existingIds(em, "Carro", carroIds);
+        Set<Long> fabricantesExistentes = existingIds(em, "Fabricante", fabricanteIds);
+        Map<Long, Acessorio> acessoriosExistentes = acessorioIds.isEmpty()
+                ? Map.of()
+                : FetchPlans.apply(Acessorio.<Acessorio>find("id in ?1", acessorioIds), Acessorio.class, Acessorio.GRAPH_CARRO)
+                        .list().stream()
+                        .collect(Collectors.toMap(a -> a.id, a -> a));
+
+        Map<Long, Set<Long>> vinculos = new LinkedHashMap<>();
+        Set<Long> atualizados = new HashSet<>();
+        Set<Long> carrosAfetados = new HashSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            Acessorio item = items.get(i);
+            BulkItemResult result = results.get(i);
+
+            Long carroId = item.carro != null ? item.carro.id : null;
+            if (carroId != null && !carrosExistentes.contains(carroId)) {
+                result.Status = BulkItemResult.ItemStatus.INVALID;
+                result.Message = "Carro com id " + carroId + " não existe";
+                continue;
+            }
+
+            Set<Long> fabricantes = AcessorioResource.fabricanteIds(item.fabricantes);
+            Set<Long> inexistentes = new HashSet<>(fabricantes);
+            inexistentes.removeAll(fabricantesExistentes);
+            if (!inexistentes.isEmpty()) {
+                result.Status = BulkItemResult.ItemStatus.INVALID;
+                result.Message = "Fabricantes com ids " + inexistentes.stream().map(String::valueOf).collect(Collectors.joining(", ")) + " não existem";
+                continue;
+            }
+
+            Acessorio target;
+            if (item.id == null) {
+                target = new Acessorio();
+                target.fabricantes = new HashSet<>();
+                result.Status = BulkItemResult.ItemStatus.CREATED;
+            } else {
+                target = acessoriosExistentes.get(item.id);
+                if (target == null) {
+                    result.Status = BulkItemResult.ItemStatus.NOT_FOUND;
+                    result.Message = "Acessório com id " + item.id + " não existe";
+                    continue;
+                }
+                if (item.versao != target.versao) {
+                    result.Status = BulkItemResult.ItemStatus.CONFLICT;
+                    result.Message = "Acessório com id " + item.id + " foi alterado por outra requisição (versão atual " + target.versao + ")";
+                    continue;
+                }
+                atualizados.add(target.id);
+                if (target.carro != null) {
+                    carrosAfetados.add(target.carro.id);
+                }
+                // os vínculos são regravados fora da coleção; se nenhum campo mudar a entidade não fica
+                // suja e a versão é incrementada explicitamente (com campos alterados o flush já incrementa
+                // e verifica a versão, e um segundo incremento faria a versão pular um número)
+                if (sameFields(target, item, carroId)) {
+                    em.lock(target, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+                }
+                result.Status = BulkItemResult.ItemStatus.UPDATED;
+            }
+
+            target.nome = item.nome;
+            target.descricao = item.descricao;
+            target.anoAquisicao = item.anoAquisicao;
+            target.valor = item.valor;
+            target.tempoInstalacaoMinutos = item.tempoInstalacaoMinutos;
+            target.carro = carroId != null ? em.getReference(Carro.class, carroId) : null;
+            carrosAfetados.add(carroId);
+            if (item.id == null) {
+                target.persist();
+            }
+
+            result.Id = target.id;
+            vinculos.put(target.id, fabricantes);
+        }
+
+        if (!atualizados.isEmpty()) {
+            deleteVinculos(em, atualizados);
+        }
+        em.flush();
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_VINCULO)) {
+                for (Map.Entry<Long, Set<Long>> vinculo : vinculos.entrySet()) {
+                    for (Long fabricanteId : vinculo.getValue()) {
+                        insert.setLong(1, vinculo.getKey());
+                        insert.setLong(2, fabricanteId);
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        });
+        evictVinculos(em, vinculos.keySet());
+        resumoWriter.refresh(carrosAfetados);
+    }
+
+    /**
+     * Remove os acessórios e seus vínculos com fabricantes usando um DELETE em conjunto por tabela,
+     * sem carregar as entidades. Uma única consulta traz os ids existentes e os carros afetados.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void delete(List<Long> ids, List<BulkItemResult> results) {
+        EntityManager em = Acessorio.getEntityManager();
+        Set<Long> existentes = new HashSet<>();
+        Set<Long> carrosAfetados = new HashSet<>();
+        em.createQuery("select a.id, c.id from Acessorio a left join a.carro c where a.id in ?1", Object[].class)
+                .setParameter(1, new HashSet<>(ids))
+                .getResultList()
+                .forEach(row -> {
+                    existentes.add((Long) row[0]);
+                    carrosAfetados.add((Long) row[1]);
+                });
+
+        if (!existentes.isEmpty()) {
+            deleteVinculos(em, existentes);
+            Acessorio.delete("id in ?1", existentes);
+            resumoWriter.refresh(carrosAfetados);
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            BulkItemResult result = results.get(i);
+            result.Id = ids.get(i);
+            if (existentes.contains(ids.get(i))) {
+                result.Status = BulkItemResult.ItemStatus.DELETED;
+            } else {
+                result.Status = BulkItemResult.ItemStatus.NOT_FOUND;
+                result.Message = "Acessório com id " + ids.get(i) + " não existe";
+            }
+        }
+    }
+
+    /**
+     * O query space restringe a invalidação do cache de segundo nível à coleção
+     * Acessorio.fabricantes, em vez de limpar todas as regiões como faria um DELETE nativo.
+     */
+    private static void deleteVinculos(EntityManager em, Collection<Long> acessorioIds) {
+        em.createNativeQuery("delete from acessorio_fabricante where acessorio_id in (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("acessorio_fabricante")
+                .setParameter("ids", acessorioIds)
+                .executeUpdate();
+    }
+
+    private static void evictVinculos(EntityManager em, Collection<Long> acessorioIds) {
+        Cache cache = em.unwrap(Session.class).getSessionFactory().getCache();
+        acessorioIds.forEach(id -> cache.evictCollectionData(FABRICANTES_ROLE, id));
+    }
+
+    private static boolean sameFields(Acessorio target, Acessorio item, Long carroId) {
+        return Objects.equals(target.nome, item.nome)
+                && Objects.equals(target.descricao, item.descricao)
+                && target.anoAquisicao == item.anoAquisicao
+                && target.valor == item.valor
+                && target.tempoInstalacaoMinutos == item.tempoInstalacaoMinutos
+                && Objects.equals(target.carro != null ? target.carro.id : null, carroId);
+    }
+
+    private static Set<Long> existingIds(EntityManager em, String entity, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(em.createQuery("select e.id from " + entity + " e where e.id in ?1", Long.class)
+                .setParameter(1, ids)
+                .getResultList());
+    }
+}
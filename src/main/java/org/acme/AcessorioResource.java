@@ -1,13 +1,26 @@
 package org.acme;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -15,17 +28,56 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.hibernate.StaleStateException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+@RunOnVirtualThread
 @Path("/acessorios")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class AcessorioResource {
 
+    @Inject
+    SearchExecutor searchExecutor;
+
+    @Inject
+    SearchResponseCache responseCache;
+
+    @Inject
+    EntityJsonCache jsonCache;
+
+    @Inject
+    EntityStreamer entityStreamer;
+
+    @Inject
+    FullTextIndex fullTextIndex;
+
+    @Inject
+    AcessorioBulkWriter bulkWriter;
+
+    @Inject
+    ResumoCarroWriter resumoWriter;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    Validator validator;
+
+    @ConfigProperty(name = "bulk.chunk-size", defaultValue = "500")
+    int bulkChunkSize;
+
     @GET
     @Operation(
             summary = "Retorna todos os acessórios (getAll)",
@@ -38,8 +90,41 @@ public class AcessorioResource {
                     schema = @Schema(implementation = Acessorio.class, type = SchemaType.ARRAY)
             )
     )
-    public Response getAll(){
-        return Response.ok(Acessorio.listAll()).build();
+    public Response getAll(
+            @Parameter(description = "Campos retornados, separados por vírgula (ex.: fields=id,nome,valor); quando omitido, retorna os registros completos")
+            @QueryParam("fields") String fields
+    ){
+        SparseFields sparse = SparseFields.parse(fields, SparseFields.ACESSORIO);
+        if (sparse == null) {
+            return Response.ok(FetchPlans.apply(Acessorio.findAll(), Acessorio.class, Acessorio.GRAPH_CARRO).list()).build();
+        }
+        if (!sparse.isValid()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(sparse.error()).build();
+        }
+        return Response.ok(Acessorio.find(sparse.require("id").hql(Acessorio.class, null)).list()).build();
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces({MediaType.APPLICATION_JSON, EntityStreamer.NDJSON})
+    @Operation(
+            summary = "Retorna todos os acessórios em streaming (getAll)",
+            description = "Retorna todos os acessórios lidos em lotes por um cursor do banco e escritos na resposta à medida que são lidos, como array JSON ou NDJSON (um objeto por linha)"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lista retornada com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = Acessorio.class, type = SchemaType.ARRAY)
+            )
+    )
+    public Response stream(
+            @Parameter(description = "Formato da resposta: json (array) ou ndjson (um objeto por linha)")
+            @QueryParam("format") @DefaultValue("json") String format){
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        return Response.ok(entityStreamer.stream(Acessorio.class, Acessorio.GRAPH_CARRO, ndjson))
+                .type(ndjson ? EntityStreamer.NDJSON : MediaType.APPLICATION_JSON)
+                .build();
     }
 
     @GET
@@ -55,18 +140,28 @@ public class AcessorioResource {
                     schema = @Schema(implementation = Acessorio.class)
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Não modificado - a ETag enviada em If-None-Match ainda é a atual"
+    )
     @APIResponse(
             responseCode = "404",
             description = "Item não encontrado"
     )
     public Response getById(
             @Parameter(description = "Id do acessório a ser pesquisado", required = true)
-            @PathParam("id") long id){
-        Acessorio entity = Acessorio.findById(id);
-        if(entity == null){
+            @PathParam("id") long id,
+            @Context Request request){
+        EntityTag etag = ETags.acessorio(id);
+        if(etag == null){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        return Response.ok(entity).build();
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if(notModified != null){
+            return notModified.build();
+        }
+
+        return jsonCache.get(Acessorio.class, id, etag, () -> Acessorio.findById(id), ETags::of);
     }
 
     @GET
@@ -83,58 +178,142 @@ public class AcessorioResource {
     )
     @Path("/search")
     public Response search(
-            @Parameter(description = "Query de buscar por nome, ano de aquisição ou tempo de instalação")
+            @Parameter(description = "Query de buscar por nome, descrição, ano de aquisição ou tempo de instalação")
             @QueryParam("q") String q,
-            @Parameter(description = "Campo de ordenação da lista de retorno")
+            @Parameter(description = "Campo de ordenação da lista de retorno; \"relevance\" ordena pela relevância da busca textual")
             @QueryParam("sort") @DefaultValue("id") String sort,
             @Parameter(description = "Esquema de filtragem de acessórios por ordem crescente ou decrescente")
             @QueryParam("direction") @DefaultValue("asc") String direction,
             @Parameter(description = "Define qual página será retornada na response")
             @QueryParam("page") @DefaultValue("0") int page,
             @Parameter(description = "Define quantos objetos serão retornados por query")
-            @QueryParam("size") @DefaultValue("4") int size
+            @QueryParam("size") @DefaultValue("4") int size,
+            @Parameter(description = "Cursor opaco retornado em NextCursor; quando informado, a busca continua a partir do último item em vez de usar a página")
+            @QueryParam("cursor") String cursor,
+            @Parameter(description = "Define se o total de acessórios deve ser calculado; quando false, TotalAcessorios e TotalPages retornam -1")
+            @QueryParam("count") @DefaultValue("true") boolean count,
+            @Parameter(description = "Campos retornados em Acessorios, separados por vírgula (ex.: fields=id,nome); o id e o campo de ordenação são sempre incluídos")
+            @QueryParam("fields") String fields,
+            @Context UriInfo uriInfo
     ){
-        Set<String> allowed = Set.of("id", "nome", "descricao", "anoAquisicao", "valor", "tempoInstalacaoMinutos");
+        return responseCache.get(Acessorio.class, uriInfo,
+                () -> buscar(q, sort, direction, page, size, cursor, count, fields),
+                fullTextIndex.cacheKey(q), sort, "desc".equalsIgnoreCase(direction), page, size, cursor, count, fields);
+    }
+
+    private Response buscar(String q, String sort, String direction, int page, int size, String cursor, boolean count, String fields){
+        SparseFields sparse = SparseFields.parse(fields, SparseFields.ACESSORIO);
+        if (sparse != null && !sparse.isValid()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(sparse.error()).build();
+        }
+
+        Set<String> allowed = Set.of("id", "nome", "descricao", "anoAquisicao", "valor", "tempoInstalacaoMinutos", "relevance");
         if(!allowed.contains(sort)){
             sort = "id";
         }
 
-        Sort sortObj = Sort.by(
-                sort,
-                "desc".equalsIgnoreCase(direction) ? Sort.Direction.Descending : Sort.Direction.Ascending
-        );
-
-        int effectivePage = Math.max(page, 0);
-
-        PanacheQuery<Acessorio> query;
-
-        if (q == null || q.isBlank()) {
-            query = Acessorio.findAll(sortObj);
-        } else {
+        String filter = null;
+        List<Object> params = new ArrayList<>();
+        SearchExecutor.Total textTotal = null;
+        if (q != null && !q.isBlank()) {
+            q = q.trim();
             try {
                 int numero = Integer.parseInt(q);
-                query = Acessorio.find(
-                        "anoAquisicao = ?1 or tempoInstalacaoMinutos = ?1",
-                        sortObj,
-                        numero
-                );
+                // union em vez de or: cada ramo usa o índice da sua coluna
+                filter = "id in (select a.id from Acessorio a where a.anoAquisicao = ?1"
+                        + " union select a.id from Acessorio a where a.tempoInstalacaoMinutos = ?1)";
+                params.add(numero);
             } catch (NumberFormatException e) {
-                query = Acessorio.find(
-                        "lower(nome) like ?1",
-                        sortObj,
-                        "%" + q.toLowerCase() + "%"
-                );
+                if (fullTextIndex.isEnabled()) {
+                    String text = q;
+                    if ("relevance".equals(sort)) {
+                        textTotal = new SearchExecutor.Total(text, () -> fullTextIndex.count(FullTextIndex.ACESSORIO, text));
+                    } else {
+                        // a ordenação por coluna precisa de todos os ids; o total é a quantidade deles
+                        List<Long> ids = fullTextIndex.matches(FullTextIndex.ACESSORIO, text);
+                        filter = "id in ?1";
+                        params.add(ids);
+                        textTotal = new SearchExecutor.Total(text, ids::size);
+                    }
+                } else {
+                    filter = "lower(nome) like ?1";
+                    params.add("%" + q.toLowerCase() + "%");
+                }
+            }
+        }
+
+        if ("relevance".equals(sort) && textTotal == null) {
+            sort = "id";
+        }
+
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        boolean relevance = "relevance".equals(sort);
+        Sort sortObj = relevance ? null : KeysetCursor.sort(sort, descending);
+
+        KeysetCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = KeysetCursor.decode(cursor);
+            if (relevance || after == null || !after.matches(sort, descending)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Cursor inválido para a ordenação informada").build();
             }
         }
 
-        List<Acessorio> acessorios = query.page(effectivePage, size).list();
+        int effectivePage = after != null ? 0 : Math.max(page, 0);
+
+        if (sparse != null) {
+            sparse.require("id", sort);
+        }
+
+        List<Long> window = relevance
+                ? List.copyOf(fullTextIndex.search(FullTextIndex.ACESSORIO, q, SearchExecutor.rankedWindow(effectivePage * size, size)).keySet())
+                : null;
+
+        SearchExecutor.SearchPage<?> result;
+        if (relevance && sparse != null) {
+            result = searchExecutor.ranked(Acessorio.class, window,
+                    ids -> SparseFields.rows(Acessorio.find(sparse.hql(Acessorio.class, "id in ?1"), ids)).list(),
+                    SparseFields::id, textTotal, effectivePage * size, size, count);
+        } else if (relevance) {
+            result = searchExecutor.ranked(Acessorio.class, window,
+                    ids -> FetchPlans.apply(Acessorio.<Acessorio>find("id in ?1", ids), Acessorio.class, Acessorio.GRAPH_CARRO).list(),
+                    item -> item.id, textTotal, effectivePage * size, size, count);
+        } else if (sparse != null) {
+            PanacheQuery<Map<String, Object>> query = SparseFields.rows(after != null
+                    ? Acessorio.find(sparse.hql(Acessorio.class, after.where(filter, params)), sortObj, after.params(params))
+                    : Acessorio.find(sparse.hql(Acessorio.class, filter), sortObj, params.toArray()));
+
+            result = searchExecutor.execute(
+                    Acessorio.class, query, filter, params, textTotal, effectivePage * size, size, count, after != null);
+        } else {
+            PanacheQuery<Acessorio> query;
+            if (after != null) {
+                query = Acessorio.find(after.where(filter, params), sortObj, after.params(params));
+            } else if (filter == null) {
+                query = Acessorio.findAll(sortObj);
+            } else {
+                query = Acessorio.find(filter, sortObj, params.toArray());
+            }
+            query = FetchPlans.apply(query, Acessorio.class, Acessorio.GRAPH_CARRO);
+
+            result = searchExecutor.execute(
+                    Acessorio.class, query, filter, params, textTotal, effectivePage * size, size, count, after != null);
+        }
 
         var response = new SearchAcessorioResponse();
-        response.Acessorios = acessorios;
-        response.TotalAcessorios = (int) query.count();
-        response.TotalPages = query.pageCount();
-        response.HasMore = effectivePage < query.pageCount() - 1;
-        response.NextPage = response.HasMore ? "http://localhost:8080/acessorios/search?q="+(q != null ? q : "")+"&page="+(effectivePage + 1) + (size > 0 ? "&size="+size : "") : "";
+        response.Acessorios = result.items();
+        response.TotalAcessorios = result.total();
+        response.TotalPages = result.totalPages();
+        response.HasMore = result.hasMore();
+
+        if (response.HasMore) {
+            if (!relevance) {
+                response.NextCursor = KeysetCursor.after(response.Acessorios.get(response.Acessorios.size() - 1), sort, descending).encode();
+            }
+            response.Next = after != null
+                    ? new PagedResponse.NextPageParam("cursor", response.NextCursor)
+                    : new PagedResponse.NextPageParam("page", String.valueOf(effectivePage + 1));
+        }
 
         return Response.ok(response).build();
     }
@@ -163,36 +342,22 @@ public class AcessorioResource {
     @Transactional
     public Response insert(@Valid Acessorio acessorio){
 
-        if(acessorio.carro != null && acessorio.carro.id != null){
-            Carro a = Carro.findById(acessorio.carro.id);
-            if(a == null){
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Carro com id " + acessorio.carro.id + " não existe").build();
-            }
-            acessorio.carro = a;
-        } else {
-            acessorio.carro = null;
+        Long carroId = acessorio.carro != null ? acessorio.carro.id : null;
+        Set<Long> fabricanteIds = fabricanteIds(acessorio.fabricantes);
+        Referencias referencias = findReferencias(carroId, fabricanteIds);
+        if(carroId != null && referencias.carro() == null){
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Carro com id " + carroId + " não existe").build();
         }
-
-        if(acessorio.fabricantes != null && !acessorio.fabricantes.isEmpty()){
-            Set<Fabricante> resolved = new HashSet<>();
-            for(Fabricante g : acessorio.fabricantes){
-                if(g == null || g.id == 0){
-                    continue;
-                }
-                Fabricante fetched = Fabricante.findById(g.id);
-                if(fetched == null){
-                    return Response.status(Response.Status.BAD_REQUEST)
-                            .entity("Fabricante com id " + g.id + " não existe").build();
-                }
-                resolved.add(fetched);
-            }
-            acessorio.fabricantes = resolved;
-        } else {
-            acessorio.fabricantes = new HashSet<>();
+        if(referencias.fabricantes().size() < fabricanteIds.size()){
+            return fabricantesInexistentes(fabricanteIds, referencias.fabricantes());
         }
+        acessorio.carro = referencias.carro();
+        acessorio.fabricantes = new HashSet<>(referencias.fabricantes());
 
         Acessorio.persist(acessorio);
+        resumoWriter.refresh(acessorio.carro != null ? acessorio.carro.id : null);
+        searchExecutor.invalidate(Acessorio.class);
 
         URI location = UriBuilder.fromResource(AcessorioResource.class).path("{id}").build(acessorio.id);
         return Response
@@ -201,6 +366,145 @@ public class AcessorioResource {
                 .build();
     }
 
+    @PUT
+    @Path("/bulk")
+    @Consumes({MediaType.APPLICATION_JSON, EntityStreamer.NDJSON})
+    @Operation(
+            summary = "Insere ou altera vários registros da lista de acessórios (bulk upsert)",
+            description = "Recebe acessórios como array JSON ou stream NDJSON. Itens sem id são inseridos e itens com id são alterados, incluindo os vínculos com fabricantes; a versão enviada deve ser a atual, senão o item retorna CONFLICT. Os itens são gravados em transações por lote e o resultado de cada item é retornado."
+    )
+    @RequestBody(
+            required = true,
+            content = @Content(
+                    schema = @Schema(implementation = Acessorio.class, type = SchemaType.ARRAY)
+            )
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Resultado de cada item, na ordem recebida",
+            content = @Content(
+                    schema = @Schema(implementation = BulkResponse.class))
+    )
+    public Response bulkUpsert(InputStream body){
+        var response = new BulkResponse();
+        List<Acessorio> chunk = new ArrayList<>();
+        List<BulkItemResult> chunkResults = new ArrayList<>();
+
+        try (MappingIterator<Acessorio> items = mapper.readerFor(Acessorio.class).readValues(body)) {
+            int index = 0;
+            while (items.hasNextValue()) {
+                Acessorio acessorio = items.nextValue();
+                var result = new BulkItemResult(index++, acessorio.id, null, null);
+                response.Results.add(result);
+
+                Set<ConstraintViolation<Acessorio>> violations = validator.validate(acessorio);
+                if (!violations.isEmpty()) {
+                    result.Status = BulkItemResult.ItemStatus.INVALID;
+                    result.Message = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+                    continue;
+                }
+
+                chunk.add(acessorio);
+                chunkResults.add(result);
+                if (chunk.size() == bulkChunkSize) {
+                    upsertChunk(chunk, chunkResults);
+                }
+            }
+        } catch (IOException e) {
+            response.Results.add(new BulkItemResult(response.Results.size(), null, BulkItemResult.ItemStatus.INVALID,
+                    "JSON inválido, leitura interrompida: " + e.getMessage()));
+        }
+        upsertChunk(chunk, chunkResults);
+
+        return bulkResponse(response, BulkItemResult.ItemStatus.CREATED, BulkItemResult.ItemStatus.UPDATED);
+    }
+
+    @DELETE
+    @Path("/bulk")
+    @Operation(
+            summary = "Remove vários registros da lista de acessórios (bulk delete)",
+            description = "Remove os acessórios cujos ids são enviados como array JSON, junto com seus vínculos com fabricantes, em transações por lote. Retorna o resultado de cada id."
+    )
+    @RequestBody(
+            required = true,
+            content = @Content(
+                    schema = @Schema(implementation = Long.class, type = SchemaType.ARRAY)
+            )
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Resultado de cada id, na ordem recebida",
+            content = @Content(
+                    schema = @Schema(implementation = BulkResponse.class))
+    )
+    public Response bulkDelete(List<Long> ids){
+        var response = new BulkResponse();
+        List<Long> pending = ids != null ? ids.stream().filter(Objects::nonNull).toList() : List.of();
+
+        for (int start = 0; start < pending.size(); start += bulkChunkSize) {
+            List<Long> chunk = pending.subList(start, Math.min(start + bulkChunkSize, pending.size()));
+            List<BulkItemResult> chunkResults = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.add(new BulkItemResult(start + i, chunk.get(i), null, null));
+            }
+            try {
+                bulkWriter.delete(chunk, chunkResults);
+            } catch (RuntimeException e) {
+                chunkResults.forEach(r -> {
+                    r.Status = BulkItemResult.ItemStatus.FAILED;
+                    r.Message = "Lote não removido: " + e.getMessage();
+                });
+            }
+            response.Results.addAll(chunkResults);
+        }
+
+        return bulkResponse(response, BulkItemResult.ItemStatus.DELETED);
+    }
+
+    private void upsertChunk(List<Acessorio> chunk, List<BulkItemResult> chunkResults){
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            bulkWriter.upsert(chunk, chunkResults);
+        } catch (RuntimeException e) {
+            boolean conflict = isOptimisticLockFailure(e);
+            for (BulkItemResult result : chunkResults) {
+                if (result.Status == BulkItemResult.ItemStatus.CREATED) {
+                    result.Id = null;
+                }
+                if (result.Status == null
+                        || result.Status == BulkItemResult.ItemStatus.CREATED
+                        || result.Status == BulkItemResult.ItemStatus.UPDATED) {
+                    result.Status = conflict ? BulkItemResult.ItemStatus.CONFLICT : BulkItemResult.ItemStatus.FAILED;
+                    result.Message = conflict
+                            ? "Lote não gravado: um dos acessórios foi alterado por outra requisição"
+                            : "Lote não gravado: " + e.getMessage();
+                }
+            }
+        }
+        chunk.clear();
+        chunkResults.clear();
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable e){
+        for(Throwable cause = e; cause != null; cause = cause.getCause()){
+            if(cause instanceof OptimisticLockException || cause instanceof StaleStateException){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Response bulkResponse(BulkResponse response, BulkItemResult.ItemStatus... succeeded){
+        Set<BulkItemResult.ItemStatus> ok = Set.of(succeeded);
+        response.Succeeded = (int) response.Results.stream().filter(r -> ok.contains(r.Status)).count();
+        response.Failed = response.Results.size() - response.Succeeded;
+        searchExecutor.invalidate(Acessorio.class);
+        response.Results.forEach(r -> jsonCache.evict(Acessorio.class, r.Id));
+        return Response.ok(response).build();
+    }
+
     @DELETE
     @Operation(
             summary = "Remove um registro da lista de acessórios (delete)",
@@ -214,18 +518,16 @@ public class AcessorioResource {
             responseCode = "404",
             description = "Item não encontrado"
     )
-    @Transactional
     @Path("{id}")
     public Response delete(@PathParam("id") long id){
-        Acessorio entity = Acessorio.findById(id);
-        if(entity == null){
+        var result = new BulkItemResult(0, id, null, null);
+        bulkWriter.delete(List.of(id), List.of(result));
+        if(result.Status == BulkItemResult.ItemStatus.NOT_FOUND){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
 
-        entity.fabricantes.clear();
-        entity.persist();
-
-        Acessorio.deleteById(id);
+        searchExecutor.invalidate(Acessorio.class);
+        jsonCache.evict(Acessorio.class, id);
         return Response.noContent().build();
     }
 
@@ -251,46 +553,120 @@ public class AcessorioResource {
             responseCode = "404",
             description = "Item não encontrado"
     )
+    @APIResponse(
+            responseCode = "412",
+            description = "Pré-condição falhou - a ETag enviada em If-Match não é a atual"
+    )
     @Transactional
     @Path("{id}")
-    public Response update(@PathParam("id") long id,@Valid Acessorio newAcessorio){
+    public Response update(@PathParam("id") long id, @Valid Acessorio newAcessorio, @Context Request request){
         Acessorio entity = Acessorio.findById(id);
         if(entity == null){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(ETags.of(entity));
+        if(preconditionFailed != null){
+            return preconditionFailed.build();
+        }
+
+        // as referências são validadas antes de alterar a entidade gerenciada; um 400 depois
+        // das alterações faria o commit delas sem atualizar o resumo e os caches
+        Long carroId = newAcessorio.carro != null ? newAcessorio.carro.id : null;
+        Set<Long> fabricanteIds = fabricanteIds(newAcessorio.fabricantes);
+        Referencias referencias = findReferencias(carroId, fabricanteIds);
+        if(carroId != null && referencias.carro() == null){
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Carro com id " + carroId + " não existe").build();
+        }
+        if(referencias.fabricantes().size() < fabricanteIds.size()){
+            return fabricantesInexistentes(fabricanteIds, referencias.fabricantes());
+        }
+
+        Long carroAnterior = entity.carro != null ? entity.carro.id : null;
         entity.nome = newAcessorio.nome;
         entity.descricao = newAcessorio.descricao;
         entity.anoAquisicao = newAcessorio.anoAquisicao;
         entity.valor = newAcessorio.valor;
         entity.tempoInstalacaoMinutos = newAcessorio.tempoInstalacaoMinutos;
+        entity.carro = referencias.carro();
+        entity.fabricantes = new HashSet<>(referencias.fabricantes());
 
-        if(newAcessorio.carro != null && newAcessorio.carro.id != null){
-            Carro a = Carro.findById(newAcessorio.carro.id);
-            if(a == null){
-                return Response.status(Response.Status.BAD_REQUEST)
-                        .entity("Carro com id " + newAcessorio.carro.id + " não existe").build();
-            }
-            entity.carro = a;
-        } else {
-            entity.carro = null;
+        searchExecutor.invalidate(Acessorio.class);
+        jsonCache.evict(Acessorio.class, id);
+
+        try {
+            Acessorio.flush();
+        } catch (OptimisticLockException e) {
+            QuarkusTransaction.setRollbackOnly();
+            return Response.status(Response.Status.PRECONDITION_FAILED)
+                    .entity("O acessório foi alterado por outra requisição").build();
         }
+        resumoWriter.refresh(carroAnterior, entity.carro != null ? entity.carro.id : null);
 
-        if(newAcessorio.fabricantes != null){
-            Set<Fabricante> resolved = new HashSet<>();
-            for(Fabricante g : newAcessorio.fabricantes){
-                if(g == null || g.id == 0) continue;
-                Fabricante fetched = Fabricante.findById(g.id);
-                if(fetched == null){
-                    return Response.status(Response.Status.BAD_REQUEST)
-                            .entity("Fabricante com id " + g.id + " não existe").build();
+        return Response.status(Response.Status.OK).entity(entity).tag(ETags.of(entity)).build();
+    }
+
+    static Set<Long> fabricanteIds(Set<Fabricante> fabricantes){
+        Set<Long> ids = new LinkedHashSet<>();
+        if(fabricantes != null){
+            for(Fabricante g : fabricantes){
+                if(g != null && g.id != null && g.id != 0){
+                    ids.add(g.id);
                 }
-                resolved.add(fetched);
             }
-            entity.fabricantes = resolved;
-        } else {
-            entity.fabricantes = new HashSet<>();
         }
+        return ids;
+    }
+
+    record Referencias(Carro carro, List<Fabricante> fabricantes){}
 
-        return Response.status(Response.Status.OK).entity(entity).build();
+    /**
+     * Carrega o carro (com a ficha técnica) e os fabricantes referenciados numa única consulta.
+     * Se o carro não existir a consulta não retorna linhas e só o carro é reportado como ausente.
+     */
+    private static Referencias findReferencias(Long carroId, Set<Long> fabricanteIds){
+        if(carroId == null){
+            return new Referencias(null, findFabricantes(fabricanteIds));
+        }
+        if(fabricanteIds.isEmpty()){
+            Carro carro = Carro.<Carro>find("from Carro c left join fetch c.fichaTecnica where c.id = ?1", carroId)
+                    .firstResult();
+            return new Referencias(carro, List.of());
+        }
+        List<Object[]> rows = Carro.getSession().createSelectionQuery(
+                        "select c, f from Carro c left join fetch c.fichaTecnica"
+                                + " left join Fabricante f on f.id in ?2 where c.id = ?1", Object[].class)
+                .setParameter(1, carroId)
+                .setParameter(2, fabricanteIds)
+                .getResultList();
+        if(rows.isEmpty()){
+            return new Referencias(null, List.of());
+        }
+        List<Fabricante> fabricantes = rows.stream()
+                .map(row -> (Fabricante) row[1])
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return new Referencias((Carro) rows.get(0)[0], fabricantes);
+    }
+
+    private static List<Fabricante> findFabricantes(Set<Long> ids){
+        if(ids.isEmpty()){
+            return List.of();
+        }
+        return Fabricante.getSession().findMultiple(Fabricante.class, List.copyOf(ids)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static Response fabricantesInexistentes(Set<Long> ids, List<Fabricante> found){
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        found.forEach(f -> missing.remove(f.id));
+        String lista = missing.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(missing.size() == 1
+                        ? "Fabricante com id " + lista + " não existe"
+                        : "Fabricantes com ids " + lista + " não existem")
+                .build();
     }
 }
\ No newline at end of file
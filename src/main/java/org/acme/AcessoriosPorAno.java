@@ -0,0 +1,13 @@
+package org.acme;
+
+public class AcessoriosPorAno {
+    public int AnoAquisicao;
+    public long QuantidadeAcessorios;
+    public double ValorTotal;
+
+    public AcessoriosPorAno(Integer anoAquisicao, Long quantidadeAcessorios, Double valorTotal) {
+        this.AnoAquisicao = anoAquisicao;
+        this.QuantidadeAcessorios = quantidadeAcessorios;
+        this.ValorTotal = valorTotal;
+    }
+}
@@ -0,0 +1,19 @@
+package org.acme;
+
+public class BulkItemResult {
+    public enum ItemStatus { CREATED, UPDATED, DELETED, NOT_FOUND, CONFLICT, INVALID, FAILED }
+
+    public int Index;
+    public Long Id;
+    public ItemStatus Status;
+    public String Message;
+
+    public BulkItemResult() {}
+
+    public BulkItemResult(int index, Long id, ItemStatus status, String message) {
+        this.Index = index;
+        this.Id = id;
+        this.Status = status;
+        this.Message = message;
+    }
+}
@@ -0,0 +1,11 @@
+package org.acme;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkResponse {
+    public List<BulkItemResult> Results = new ArrayList<>();
+
+    public int Succeeded;
+    public int Failed;
+}
@@ -0,0 +1,88 @@
+package org.acme;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+
+@Path("/admin/cache")
+@Produces(MediaType.APPLICATION_JSON)
+public class CacheStatsResource {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    SearchResponseCache searchResponseCache;
+
+    @Inject
+    EntityJsonCache entityJsonCache;
+
+    @GET
+    @Operation(
+            summary = "Retorna as estatísticas do cache de segundo nível (cache stats)",
+            description = "Retorna os acertos, as falhas e as inserções do cache de segundo nível do Hibernate, no total e por região, os números do cache de consultas e os dos caches de respostas das buscas e das leituras por id"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Estatísticas retornadas com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = CacheStatsResponse.class)
+            )
+    )
+    public Response getStats(){
+        Statistics statistics = sessionFactory.getStatistics();
+
+        var response = new CacheStatsResponse();
+        response.Hits = statistics.getSecondLevelCacheHitCount();
+        response.Misses = statistics.getSecondLevelCacheMissCount();
+        response.Puts = statistics.getSecondLevelCachePutCount();
+        long lookups = response.Hits + response.Misses;
+        response.HitRatio = lookups > 0 ? (double) response.Hits / lookups : 0;
+        response.QueryCacheHits = statistics.getQueryCacheHitCount();
+        response.QueryCacheMisses = statistics.getQueryCacheMissCount();
+
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(name -> {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(name);
+            var region = new CacheStatsResponse.Region();
+            region.Name = name;
+            region.Hits = regionStatistics.getHitCount();
+            region.Misses = regionStatistics.getMissCount();
+            region.Puts = regionStatistics.getPutCount();
+            region.ElementsInMemory = regionStatistics.getElementCountInMemory();
+            response.Regions.add(region);
+        });
+
+        CacheStats searchStats = searchResponseCache.stats();
+        response.SearchResponses.Hits = searchStats.hitCount();
+        response.SearchResponses.Misses = searchStats.missCount();
+        response.SearchResponses.HitRatio = searchStats.hitRate();
+        response.SearchResponses.Evictions = searchStats.evictionCount();
+        response.SearchResponses.EvictedBytes = searchStats.evictionWeight();
+        response.SearchResponses.Entries = searchResponseCache.size();
+        response.SearchResponses.Bytes = searchResponseCache.weight();
+
+        CacheStats entityStats = entityJsonCache.stats();
+        response.EntityResponses.Hits = entityStats.hitCount();
+        response.EntityResponses.Misses = entityStats.missCount();
+        response.EntityResponses.HitRatio = entityStats.hitRate();
+        response.EntityResponses.Evictions = entityStats.evictionCount();
+        response.EntityResponses.EvictedBytes = entityStats.evictionWeight();
+        response.EntityResponses.Entries = entityJsonCache.size();
+        response.EntityResponses.Bytes = entityJsonCache.weight();
+
+        return Response.ok(response).build();
+    }
+}
@@ -0,0 +1,37 @@
+package org.acme;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CacheStatsResponse {
+    public long Hits;
+    public long Misses;
+    public long Puts;
+    public double HitRatio;
+
+    public long QueryCacheHits;
+    public long QueryCacheMisses;
+
+    public List<Region> Regions = new ArrayList<>();
+
+    public ResponseCache SearchResponses = new ResponseCache();
+    public ResponseCache EntityResponses = new ResponseCache();
+
+    public static class Region {
+        public String Name;
+        public long Hits;
+        public long Misses;
+        public long Puts;
+        public long ElementsInMemory;
+    }
+
+    public static class ResponseCache {
+        public long Hits;
+        public long Misses;
+        public double HitRatio;
+        public long Evictions;
+        public long EvictedBytes;
+        public long Entries;
+        public long Bytes;
+    }
+}
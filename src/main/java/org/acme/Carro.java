@@ -8,14 +8,25 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@NamedEntityGraph(name = Carro.GRAPH_FICHA_TECNICA, attributeNodes = @NamedAttributeNode("fichaTecnica"))
 public class Carro extends PanacheEntityBase {
+
+    public static final String GRAPH_FICHA_TECNICA = "Carro.fichaTecnica";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carro_seq")
+    @SequenceGenerator(name = "carro_seq", sequenceName = "carro_seq", allocationSize = 50)
     @Schema(readOnly = true, example = "1")
     public Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Schema(readOnly = true, example = "0")
+    public long versao;
+
     @NotBlank(message = "O modelo do carro não pode ser vazio")
     @Size(min = 2, max = 100, message = "O modelo deve ter entre 2 e 100 caracteres")
     public String modelo;
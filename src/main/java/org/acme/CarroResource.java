@@ -1,12 +1,25 @@
 package org.acme;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -15,15 +28,51 @@ import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+@RunOnVirtualThread
 @Path("/carros")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class CarroResource {
 
+    // a busca textual de carros também considera os detalhes do motor, indexados na ficha técnica
+    private static final Map<String, String> FICHA_TECNICA_DO_CARRO = Map.of(FullTextIndex.FICHA_TECNICA, "FICHA_TECNICA_ID");
+
+    @Inject
+    SearchExecutor searchExecutor;
+
+    @Inject
+    SearchResponseCache responseCache;
+
+    @Inject
+    EntityJsonCache jsonCache;
+
+    @Inject
+    EntityStreamer entityStreamer;
+
+    @Inject
+    FullTextIndex fullTextIndex;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    Validator validator;
+
+    @ConfigProperty(name = "bulk.chunk-size", defaultValue = "500")
+    int bulkChunkSize;
+
     @GET
     @Operation(
             summary = "Retorna todos os carros (getAll)",
@@ -36,8 +85,41 @@ public class CarroResource {
                     schema = @Schema(implementation = Carro.class, type = SchemaType.ARRAY)
             )
     )
-    public Response getAll(){
-        return Response.ok(Carro.listAll()).build();
+    public Response getAll(
+            @Parameter(description = "Campos retornados, separados por vírgula (ex.: fields=id,modelo); quando omitido, retorna os registros completos")
+            @QueryParam("fields") String fields
+    ){
+        SparseFields sparse = SparseFields.parse(fields, SparseFields.CARRO);
+        if (sparse == null) {
+            return Response.ok(FetchPlans.apply(Carro.findAll(), Carro.class, Carro.GRAPH_FICHA_TECNICA).list()).build();
+        }
+        if (!sparse.isValid()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(sparse.error()).build();
+        }
+        return Response.ok(Carro.find(sparse.require("id").hql(Carro.class, null)).list()).build();
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces({MediaType.APPLICATION_JSON, EntityStreamer.NDJSON})
+    @Operation(
+            summary = "Retorna todos os carros em streaming (getAll)",
+            description = "Retorna todos os carros lidos em lotes por um cursor do banco e escritos na resposta à medida que são lidos, como array JSON ou NDJSON (um objeto por linha)"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lista retornada com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = Carro.class, type = SchemaType.ARRAY)
+            )
+    )
+    public Response stream(
+            @Parameter(description = "Formato da resposta: json (array) ou ndjson (um objeto por linha)")
+            @QueryParam("format") @DefaultValue("json") String format){
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        return Response.ok(entityStreamer.stream(Carro.class, Carro.GRAPH_FICHA_TECNICA, ndjson))
+                .type(ndjson ? EntityStreamer.NDJSON : MediaType.APPLICATION_JSON)
+                .build();
     }
 
     @GET
@@ -53,18 +135,55 @@ public class CarroResource {
                     schema = @Schema(implementation = Carro.class)
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Não modificado - a ETag enviada em If-None-Match ainda é a atual"
+    )
     @APIResponse(
             responseCode = "404",
             description = "Item não encontrado"
     )
     public Response getById(
             @Parameter(description = "Id do carro a ser pesquisado", required = true)
+            @PathParam("id") long id,
+            @Context Request request){
+        EntityTag etag = ETags.carro(id);
+        if(etag == null){
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if(notModified != null){
+            return notModified.build();
+        }
+
+        return jsonCache.get(Carro.class, id, etag, () -> Carro.findById(id), ETags::of);
+    }
+
+    @GET
+    @Path("{id}/resumo")
+    @Operation(
+            summary = "Retorna o resumo dos acessórios de um carro",
+            description = "Retorna a quantidade de acessórios, o valor e o tempo de instalação totais e os fabricantes distintos do carro, lidos de um resumo pré-calculado"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Resumo retornado com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = ResumoCarro.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "404",
+            description = "Item não encontrado"
+    )
+    public Response getResumo(
+            @Parameter(description = "Id do carro", required = true)
             @PathParam("id") long id){
-        Carro entity = Carro.findById(id);
-        if(entity == null){
+        ResumoCarro resumo = ResumoCarro.porCarro(List.of(id)).get(id);
+        if(!resumo.isPersistent() && Carro.count("id", id) == 0){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        return Response.ok(entity).build();
+        return Response.ok(resumo).build();
     }
 
     @GET
@@ -81,51 +200,168 @@ public class CarroResource {
     )
     @Path("/search")
     public Response search(
-            @Parameter(description = "Query de buscar por modelo ou país de montagem")
+            @Parameter(description = "Query de buscar por modelo, versão, país de montagem ou detalhes do motor")
             @QueryParam("q") String q,
-            @Parameter(description = "Campo de ordenação da lista de retorno")
+            @Parameter(description = "Campo de ordenação da lista de retorno; \"relevance\" ordena pela relevância da busca textual")
             @QueryParam("sort") @DefaultValue("id") String sort,
             @Parameter(description = "Esquema de filtragem de carros por ordem crescente ou decrescente")
             @QueryParam("direction") @DefaultValue("asc") String direction,
             @Parameter(description = "Define qual página será retornada na response")
             @QueryParam("page") @DefaultValue("0") int page,
             @Parameter(description = "Define quantos objetos serão retornados por query")
-            @QueryParam("size") @DefaultValue("4") int size
+            @QueryParam("size") @DefaultValue("4") int size,
+            @Parameter(description = "Cursor opaco retornado em NextCursor; quando informado, a busca continua a partir do último item em vez de usar a página")
+            @QueryParam("cursor") String cursor,
+            @Parameter(description = "Define se o total de carros deve ser calculado; quando false, TotalCarros e TotalPages retornam -1")
+            @QueryParam("count") @DefaultValue("true") boolean count,
+            @Parameter(description = "Campos retornados em Carros, separados por vírgula (ex.: fields=id,nome); o id e o campo de ordenação são sempre incluídos")
+            @QueryParam("fields") String fields,
+            @Parameter(description = "Inclui em Resumos o resumo dos acessórios de cada carro retornado, indexado pelo id do carro")
+            @QueryParam("resumo") @DefaultValue("false") boolean resumo,
+            @Context UriInfo uriInfo
     ){
-        Set<String> allowed = Set.of("id", "modelo", "dataDeFabricacao", "paisDeMontagem");
+        return responseCache.get(Carro.class, uriInfo,
+                () -> buscar(q, sort, direction, page, size, cursor, count, fields, resumo),
+                fullTextIndex.cacheKey(q), sort, "desc".equalsIgnoreCase(direction), page, size, cursor, count, fields, resumo);
+    }
+
+    private Response buscar(String q, String sort, String direction, int page, int size, String cursor, boolean count, String fields, boolean resumo){
+        SparseFields sparse = SparseFields.parse(fields, SparseFields.CARRO);
+        if (sparse != null && !sparse.isValid()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(sparse.error()).build();
+        }
+
+        Set<String> allowed = Set.of("id", "modelo", "dataDeFabricacao", "paisDeMontagem", "relevance");
         if(!allowed.contains(sort)){
             sort = "id";
         }
 
-        Sort sortObj = Sort.by(
-                sort,
-                "desc".equalsIgnoreCase(direction) ? Sort.Direction.Descending : Sort.Direction.Ascending
-        );
+        String filter = null;
+        List<Object> params = new ArrayList<>();
+        SearchExecutor.Total textTotal = null;
+        if (q != null && !q.isBlank()) {
+            q = q.trim();
+            if (fullTextIndex.isEnabled()) {
+                String text = q;
+                if ("relevance".equals(sort)) {
+                    textTotal = new SearchExecutor.Total(text,
+                            () -> fullTextIndex.count(FullTextIndex.CARRO, text, FICHA_TECNICA_DO_CARRO));
+                } else {
+                    // a ordenação por coluna precisa de todos os ids; o total é a quantidade deles
+                    List<Long> ids = fullTextIndex.matches(FullTextIndex.CARRO, text, FICHA_TECNICA_DO_CARRO);
+                    filter = "id in ?1";
+                    params.add(ids);
+                    textTotal = new SearchExecutor.Total(text, ids::size);
+                }
+            } else {
+                filter = "lower(modelo) like ?1 or lower(paisDeMontagem) like ?1";
+                params.add("%" + q.toLowerCase() + "%");
+            }
+        }
+        if ("relevance".equals(sort) && textTotal == null) {
+            sort = "id";
+        }
 
-        int effectivePage = Math.max(page, 0);
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        boolean relevance = "relevance".equals(sort);
+        Sort sortObj = relevance ? null : KeysetCursor.sort(sort, descending);
 
-        PanacheQuery<Carro> query;
+        KeysetCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = KeysetCursor.decode(cursor);
+            if (relevance || after == null || !after.matches(sort, descending)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Cursor inválido para a ordenação informada").build();
+            }
+        }
 
-        if (q == null || q.isBlank()) {
-            query = Carro.findAll(sortObj);
-        } else {
-            query = Carro.find(
-                    "lower(modelo) like ?1 or lower(paisDeMontagem) like ?1", sortObj, "%" + q.toLowerCase() + "%");
+        int effectivePage = after != null ? 0 : Math.max(page, 0);
+
+        if (sparse != null) {
+            sparse.require("id", sort);
         }
 
-        List<Carro> carros = query.page(effectivePage, size).list();
+        List<Long> window = relevance ? buscaTextual(q, SearchExecutor.rankedWindow(effectivePage * size, size)) : null;
+
+        SearchExecutor.SearchPage<?> result;
+        if (relevance && sparse != null) {
+            result = searchExecutor.ranked(Carro.class, window,
+                    ids -> SparseFields.rows(Carro.find(sparse.hql(Carro.class, "id in ?1"), ids)).list(),
+                    SparseFields::id, textTotal, effectivePage * size, size, count);
+        } else if (relevance) {
+            result = searchExecutor.ranked(Carro.class, window,
+                    ids -> FetchPlans.apply(Carro.<Carro>find("id in ?1", ids), Carro.class, Carro.GRAPH_FICHA_TECNICA).list(),
+                    carro -> carro.id, textTotal, effectivePage * size, size, count);
+        } else if (sparse != null) {
+            PanacheQuery<Map<String, Object>> query = SparseFields.rows(after != null
+                    ? Carro.find(sparse.hql(Carro.class, after.where(filter, params)), sortObj, after.params(params))
+                    : Carro.find(sparse.hql(Carro.class, filter), sortObj, params.toArray()));
+
+            result = searchExecutor.execute(
+                    Carro.class, query, filter, params, textTotal, effectivePage * size, size, count, after != null);
+        } else {
+            PanacheQuery<Carro> query;
+            if (after != null) {
+                query = Carro.find(after.where(filter, params), sortObj, after.params(params));
+            } else if (filter == null) {
+                query = Carro.findAll(sortObj);
+            } else {
+                query = Carro.find(filter, sortObj, params.toArray());
+            }
+            query = FetchPlans.apply(query, Carro.class, Carro.GRAPH_FICHA_TECNICA);
+
+            result = searchExecutor.execute(
+                    Carro.class, query, filter, params, textTotal, effectivePage * size, size, count, after != null);
+        }
 
         var response = new SearchCarroResponse();
-        response.Carros = carros;
-        response.TotalCarros = (int) query.count();
-        response.TotalPages = query.pageCount();
-        response.HasMore = effectivePage < query.pageCount() - 1;
-        URI nextUri = URI.create("http://localhost:8080/carros/search?q=" + (q != null ? q : "") + "&page=" + (effectivePage + 1) + (size > 0 ? "&size=" + size : ""));
-        response.NextPage = response.HasMore ? nextUri.toString() : "";
+        response.Carros = result.items();
+        response.TotalCarros = result.total();
+        response.TotalPages = result.totalPages();
+        response.HasMore = result.hasMore();
+        if (resumo) {
+            List<Long> ids = result.items().stream()
+                    .map(item -> item instanceof Map<?, ?> row ? (Long) row.get("id") : ((Carro) item).id)
+                    .toList();
+            response.Resumos = ResumoCarro.porCarro(ids);
+        }
+
+        if (response.HasMore) {
+            if (!relevance) {
+                response.NextCursor = KeysetCursor.after(response.Carros.get(response.Carros.size() - 1), sort, descending).encode();
+            }
+            response.Next = after != null
+                    ? new PagedResponse.NextPageParam("cursor", response.NextCursor)
+                    : new PagedResponse.NextPageParam("page", String.valueOf(effectivePage + 1));
+        }
 
         return Response.ok(response).build();
     }
 
+    /**
+     * Os {@code limit} carros mais relevantes para o texto. Inclui os carros cuja ficha técnica
+     * casa pelos detalhes do motor, mantendo o maior score de cada carro; como cada ficha é de
+     * um único carro, os {@code limit} primeiros de cada tabela bastam para o resultado.
+     */
+    private List<Long> buscaTextual(String q, int limit) {
+        Map<Long, Float> scores = new HashMap<>(fullTextIndex.search(FullTextIndex.CARRO, q, limit));
+        Map<Long, Float> fichas = fullTextIndex.search(FullTextIndex.FICHA_TECNICA, q, limit);
+        if (!fichas.isEmpty()) {
+            List<Object[]> carros = Carro.getEntityManager()
+                    .createQuery("select c.id, c.fichaTecnica.id from Carro c where c.fichaTecnica.id in ?1", Object[].class)
+                    .setParameter(1, fichas.keySet())
+                    .getResultList();
+            for (Object[] row : carros) {
+                scores.merge((Long) row[0], fichas.get((Long) row[1]), Math::max);
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
     @POST
     @Operation(
             summary = "Adiciona um registro à lista de carros (insert)",
@@ -150,6 +386,7 @@ public class CarroResource {
     @Transactional
     public Response insert(@Valid Carro carro){
         Carro.persist(carro);
+        searchExecutor.invalidate(Carro.class);
 
         URI location = URI.create("/carros/" + carro.id);
         return Response
@@ -158,6 +395,86 @@ public class CarroResource {
                 .build();
     }
 
+    @POST
+    @Path("/bulk")
+    @Consumes({MediaType.APPLICATION_JSON, EntityStreamer.NDJSON})
+    @Operation(
+            summary = "Adiciona vários registros à lista de carros (bulk insert)",
+            description = "Adiciona carros, com suas fichas técnicas, a partir de um array JSON ou de um stream NDJSON. Cada item é validado e os válidos são gravados em transações por lote com inserts em batch. Retorna o resultado de cada item."
+    )
+    @RequestBody(
+            required = true,
+            content = @Content(
+                    schema = @Schema(implementation = Carro.class, type = SchemaType.ARRAY)
+            )
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Resultado de cada item, na ordem recebida",
+            content = @Content(
+                    schema = @Schema(implementation = BulkResponse.class))
+    )
+    public Response bulkInsert(InputStream body){
+        var response = new BulkResponse();
+        List<Carro> chunk = new ArrayList<>();
+        List<BulkItemResult> chunkResults = new ArrayList<>();
+
+        try (MappingIterator<Carro> items = mapper.readerFor(Carro.class).readValues(body)) {
+            int index = 0;
+            while (items.hasNextValue()) {
+                Carro carro = items.nextValue();
+                var result = new BulkItemResult(index++, null, BulkItemResult.ItemStatus.CREATED, null);
+
+                Set<ConstraintViolation<Carro>> violations = validator.validate(carro);
+                if (!violations.isEmpty()) {
+                    result.Status = BulkItemResult.ItemStatus.INVALID;
+                    result.Message = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+                    response.Results.add(result);
+                    continue;
+                }
+
+                carro.id = null;
+                if (carro.fichaTecnica != null) {
+                    carro.fichaTecnica.id = null;
+                }
+                chunk.add(carro);
+                chunkResults.add(result);
+                response.Results.add(result);
+                if (chunk.size() == bulkChunkSize) {
+                    persistChunk(chunk, chunkResults);
+                }
+            }
+        } catch (IOException e) {
+            response.Results.add(new BulkItemResult(response.Results.size(), null, BulkItemResult.ItemStatus.INVALID,
+                    "JSON inválido, leitura interrompida: " + e.getMessage()));
+        }
+        persistChunk(chunk, chunkResults);
+
+        response.Succeeded = (int) response.Results.stream().filter(r -> r.Status == BulkItemResult.ItemStatus.CREATED).count();
+        response.Failed = response.Results.size() - response.Succeeded;
+        searchExecutor.invalidate(Carro.class);
+        return Response.ok(response).build();
+    }
+
+    private void persistChunk(List<Carro> chunk, List<BulkItemResult> chunkResults){
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            QuarkusTransaction.requiringNew().run(() -> Carro.persist(chunk));
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.get(i).Id = chunk.get(i).id;
+            }
+        } catch (RuntimeException e) {
+            for (BulkItemResult result : chunkResults) {
+                result.Status = BulkItemResult.ItemStatus.FAILED;
+                result.Message = "Lote não gravado: " + e.getMessage();
+            }
+        }
+        chunk.clear();
+        chunkResults.clear();
+    }
+
     @DELETE
     @Operation(
             summary = "Remove um registro da lista de carros (delete)",
@@ -181,22 +498,115 @@ public class CarroResource {
     @Transactional
     @Path("{id}")
     public Response delete(@PathParam("id") long id){
-        Carro entity = Carro.findById(id);
-        if(entity == null){
+        var result = new BulkItemResult(0, id, null, null);
+        deleteIds(List.of(id), List.of(result));
+
+        if(result.Status == BulkItemResult.ItemStatus.NOT_FOUND){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-
-        long musicasVinculadas = Acessorio.count("carro.id = ?1", id);
-        if(musicasVinculadas > 0){
+        if(result.Status == BulkItemResult.ItemStatus.CONFLICT){
+            // a contagem só é feita no caminho de erro, para a mensagem
+            long musicasVinculadas = Acessorio.count("carro.id = ?1", id);
             return Response.status(Response.Status.CONFLICT)
                     .entity("Não é possível deletar o carro. Existem " + musicasVinculadas + " acessório(s) vinculado(s).")
                     .build();
         }
 
-        Carro.deleteById(id);
+        searchExecutor.invalidate(Carro.class);
+        jsonCache.evict(Carro.class, id);
         return Response.noContent().build();
     }
 
+    @DELETE
+    @Path("/bulk")
+    @Operation(
+            summary = "Remove vários registros da lista de carros (bulk delete)",
+            description = "Remove os carros cujos ids são enviados como array JSON, junto com suas fichas técnicas, em transações por lote. Carros com acessórios vinculados não são removidos e retornam CONFLICT. Retorna o resultado de cada id."
+    )
+    @RequestBody(
+            required = true,
+            content = @Content(
+                    schema = @Schema(implementation = Long.class, type = SchemaType.ARRAY)
+            )
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Resultado de cada id, na ordem recebida",
+            content = @Content(
+                    schema = @Schema(implementation = BulkResponse.class))
+    )
+    public Response bulkDelete(List<Long> ids){
+        var response = new BulkResponse();
+        List<Long> pending = ids != null ? ids.stream().filter(Objects::nonNull).toList() : List.of();
+
+        for (int start = 0; start < pending.size(); start += bulkChunkSize) {
+            List<Long> chunk = pending.subList(start, Math.min(start + bulkChunkSize, pending.size()));
+            List<BulkItemResult> chunkResults = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.add(new BulkItemResult(start + i, chunk.get(i), null, null));
+            }
+            try {
+                QuarkusTransaction.requiringNew().run(() -> deleteIds(chunk, chunkResults));
+            } catch (RuntimeException e) {
+                chunkResults.forEach(r -> {
+                    r.Status = BulkItemResult.ItemStatus.FAILED;
+                    r.Message = "Lote não removido: " + e.getMessage();
+                });
+            }
+            response.Results.addAll(chunkResults);
+        }
+
+        response.Succeeded = (int) response.Results.stream().filter(r -> r.Status == BulkItemResult.ItemStatus.DELETED).count();
+        response.Failed = response.Results.size() - response.Succeeded;
+        searchExecutor.invalidate(Carro.class);
+        response.Results.forEach(r -> jsonCache.evict(Carro.class, r.Id));
+        return Response.ok(response).build();
+    }
+
+    /**
+     * Remove os carros sem acessórios e suas fichas técnicas sem carregar as entidades: uma
+     * consulta traz, para cada id, a ficha técnica e um EXISTS sobre os acessórios, seguida de
+     * um DELETE em conjunto por tabela. O resumo dos acessórios sai junto pelo ON DELETE CASCADE.
+     */
+    private static void deleteIds(List<Long> ids, List<BulkItemResult> results){
+        Map<Long, Long> fichas = new HashMap<>();
+        Set<Long> vinculados = new HashSet<>();
+        Carro.getEntityManager()
+                .createQuery("select c.id, f.id, case when exists (select 1 from Acessorio a where a.carro.id = c.id) then true else false end"
+                        + " from Carro c left join c.fichaTecnica f where c.id in ?1", Object[].class)
+                .setParameter(1, ids)
+                .getResultList()
+                .forEach(row -> {
+                    fichas.put((Long) row[0], (Long) row[1]);
+                    if ((Boolean) row[2]) {
+                        vinculados.add((Long) row[0]);
+                    }
+                });
+
+        List<Long> carros = fichas.keySet().stream().filter(id -> !vinculados.contains(id)).toList();
+        if (!carros.isEmpty()) {
+            List<Long> fichasRemovidas = carros.stream().map(fichas::get).filter(Objects::nonNull).toList();
+            Carro.delete("id in ?1", carros);
+            if (!fichasRemovidas.isEmpty()) {
+                FichaTecnica.delete("id in ?1", fichasRemovidas);
+            }
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            BulkItemResult result = results.get(i);
+            Long id = ids.get(i);
+            if (!fichas.containsKey(id)) {
+                result.Status = BulkItemResult.ItemStatus.NOT_FOUND;
+                result.Message = "Carro com id " + id + " não existe";
+            } else if (vinculados.contains(id)) {
+                result.Status = BulkItemResult.ItemStatus.CONFLICT;
+                result.Message = "Carro possui acessórios vinculados";
+            } else {
+                result.Status = BulkItemResult.ItemStatus.DELETED;
+            }
+        }
+    }
+
     @PUT
     @Operation(
             summary = "Altera um registro da lista de carros (update)",
@@ -219,13 +629,21 @@ public class CarroResource {
             responseCode = "404",
             description = "Item não encontrado"
     )
+    @APIResponse(
+            responseCode = "412",
+            description = "Pré-condição falhou - a ETag enviada em If-Match não é a atual"
+    )
     @Transactional
     @Path("{id}")
-    public Response update(@PathParam("id") long id, @Valid Carro newCarro){
+    public Response update(@PathParam("id") long id, @Valid Carro newCarro, @Context Request request){
         Carro entity = Carro.findById(id);
         if(entity == null){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(ETags.of(entity));
+        if(preconditionFailed != null){
+            return preconditionFailed.build();
+        }
 
         entity.modelo = newCarro.modelo;
         entity.nomeCompletoVersao = newCarro.nomeCompletoVersao;
@@ -243,6 +661,17 @@ public class CarroResource {
             entity.fichaTecnica = null;
         }
 
-        return Response.status(Response.Status.OK).entity(entity).build();
+        searchExecutor.invalidate(Carro.class);
+        jsonCache.evict(Carro.class, id);
+
+        try {
+            Carro.flush();
+        } catch (OptimisticLockException e) {
+            QuarkusTransaction.setRollbackOnly();
+            return Response.status(Response.Status.PRECONDITION_FAILED)
+                    .entity("O carro foi alterado por outra requisição").build();
+        }
+
+        return Response.status(Response.Status.OK).entity(entity).tag(ETags.of(entity)).build();
     }
 }
\ No newline at end of file
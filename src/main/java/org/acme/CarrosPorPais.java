@@ -0,0 +1,11 @@
+package org.acme;
+
+public class CarrosPorPais {
+    public String PaisDeMontagem;
+    public long QuantidadeCarros;
+
+    public CarrosPorPais(String paisDeMontagem, Long quantidadeCarros) {
+        this.PaisDeMontagem = paisDeMontagem;
+        this.QuantidadeCarros = quantidadeCarros;
+    }
+}
@@ -0,0 +1,270 @@
+package org.acme;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Gera uma massa de dados sintética para testes de volume: fabricantes, carros com ficha
+ * técnica e acessórios ligados a vários fabricantes. Com a mesma semente os dados gerados são
+ * sempre os mesmos. As linhas são inseridas por JDBC em lotes, antes da criação dos índices
+ * textuais, que então indexam a tabela inteira de uma vez em vez de linha a linha pelos triggers.
+ */
+@ApplicationScoped
+public class DatasetGenerator {
+
+    private static final Logger LOG = Logger.getLogger(DatasetGenerator.class);
+
+    private static final String[] MARCAS = {"Volkswagen", "Chevrolet", "Fiat", "Ford", "Toyota", "Honda", "Hyundai", "Renault", "Jeep", "Nissan"};
+    private static final String[] MODELOS = {"Gol", "Onix", "Argo", "Ka", "Corolla", "Civic", "HB20", "Kwid", "Compass", "Kicks", "Polo", "Tracker", "Strada", "Ranger", "Hilux"};
+    private static final String[] VERSOES = {"1.0 MPI", "1.0 Turbo", "1.6 16V", "2.0 Flex", "1.3 Firefly", "2.8 Diesel", "Híbrido"};
+    private static final String[] PAISES = {"Brasil", "Argentina", "México", "Japão", "Alemanha", "Estados Unidos", "Coreia do Sul", "França"};
+    private static final String[] COMBUSTIVEIS = {"Flex", "Gasolina", "Diesel", "Elétrico", "Híbrido"};
+    private static final String[] OPCIONAIS = {"Ar-condicionado", "Direção elétrica", "Central multimídia", "Câmera de ré", "Teto solar", "Piloto automático"};
+    private static final String[] ACESSORIOS = {"Pneu", "Pastilha de freio", "Turbina", "Banco esportivo", "Som automotivo", "Sensor de estacionamento",
+            "Engate", "Rack de teto", "Farol de LED", "Película", "Alarme", "Rodas de liga leve"};
+    private static final String[] FABRICANTES = {"Bosch", "Pioneer", "Michelin", "Pirelli", "Brembo", "Garrett", "Recaro", "Magneti Marelli",
+            "Continental", "Denso", "Valeo", "NGK", "Cofap", "Monroe", "Philips", "Osram"};
+
+    @Inject
+    DataSource dataSource;
+
+    @ConfigProperty(name = "dataset.generate", defaultValue = "false")
+    boolean generate;
+
+    @ConfigProperty(name = "dataset.carros", defaultValue = "100000")
+    int carros;
+
+    // média; cada carro recebe de 0 ao dobro desse valor
+    @ConfigProperty(name = "dataset.acessorios-por-carro", defaultValue = "3")
+    int acessoriosPorCarro;
+
+    @ConfigProperty(name = "dataset.fabricantes", defaultValue = "500")
+    int fabricantes;
+
+    @ConfigProperty(name = "dataset.seed", defaultValue = "42")
+    long seed;
+
+    @ConfigProperty(name = "dataset.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    private volatile Range carroIds = new Range(0, -1);
+    private volatile Range acessorioIds = new Range(0, -1);
+    private volatile Range fabricanteIds = new Range(0, -1);
+
+    // antes do FullTextIndex, que usa a prioridade padrão
+    void onStart(@Observes @Priority(1000) StartupEvent event) {
+        if (!generate) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long existentes = count(connection, "Carro");
+            if (existentes >= carros) {
+                LOG.infof("Massa de dados não gerada: já existem %d carros", existentes);
+                carroIds = new Range(1, max(connection, "Carro"));
+                acessorioIds = new Range(1, max(connection, "Acessorio"));
+                fabricanteIds = new Range(1, max(connection, "Fabricante"));
+                return;
+            }
+            long start = System.nanoTime();
+            long linhas = generate(connection);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            LOG.infof("Massa de dados gerada: %d linhas em %d ms (%.0f linhas/s)", linhas, millis, linhas * 1000.0 / Math.max(millis, 1));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível gerar a massa de dados", e);
+        }
+    }
+
+    /** Ids dos carros gerados (ou existentes, quando a geração foi pulada). */
+    public Range carroIds() {
+        return carroIds;
+    }
+
+    public Range acessorioIds() {
+        return acessorioIds;
+    }
+
+    public Range fabricanteIds() {
+        return fabricanteIds;
+    }
+
+    private long generate(Connection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long fichaId = max(connection, "FichaTecnica");
+        long carroId = max(connection, "Carro");
+        long acessorioId = max(connection, "Acessorio");
+        long fabricanteId = max(connection, "Fabricante");
+        long linhas = 0;
+
+        long primeiroFabricante = fabricanteId + 1;
+        try (PreparedStatement fabricante = connection.prepareStatement(
+                "insert into Fabricante (id, versao, nome, detalhes) values (?, 0, ?, ?)")) {
+            for (int i = 0; i < fabricantes; i++) {
+                String marca = FABRICANTES[i % FABRICANTES.length];
+                fabricante.setLong(1, ++fabricanteId);
+                fabricante.setString(2, i < FABRICANTES.length ? marca : marca + " " + (i / FABRICANTES.length + 1));
+                fabricante.setString(3, "Fornecedor de peças e acessórios automotivos");
+                fabricante.addBatch();
+                linhas++;
+            }
+            fabricante.executeBatch();
+        }
+        connection.commit();
+
+        long primeiroCarro = carroId + 1;
+        long primeiroAcessorio = acessorioId + 1;
+        try (PreparedStatement ficha = connection.prepareStatement(
+                     "insert into FichaTecnica (id, versao, detalhesDoMotor, tipoDeCombustivel, opcionaisDeFabrica) values (?, 0, ?, ?, ?)");
+             PreparedStatement carro = connection.prepareStatement(
+                     "insert into Carro (id, versao, modelo, nomeCompletoVersao, dataDeFabricacao, paisDeMontagem, ficha_tecnica_id) values (?, 0, ?, ?, ?, ?, ?)");
+             PreparedStatement acessorio = connection.prepareStatement(
+                     "insert into Acessorio (id, versao, nome, descricao, anoAquisicao, valor, tempoInstalacaoMinutos, carro_id) values (?, 0, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement vinculo = connection.prepareStatement(
+                     "insert into acessorio_fabricante (acessorio_id, fabricante_id) values (?, ?)")) {
+
+            for (int i = 1; i <= carros; i++) {
+                String modelo = MODELOS[random.nextInt(MODELOS.length)];
+                String versao = VERSOES[random.nextInt(VERSOES.length)];
+
+                ficha.setLong(1, ++fichaId);
+                ficha.setString(2, versao + " " + (70 + random.nextInt(180)) + " cv");
+                ficha.setString(3, COMBUSTIVEIS[random.nextInt(COMBUSTIVEIS.length)]);
+                ficha.setString(4, OPCIONAIS[random.nextInt(OPCIONAIS.length)] + ", " + OPCIONAIS[random.nextInt(OPCIONAIS.length)]);
+                ficha.addBatch();
+
+                carro.setLong(1, ++carroId);
+                carro.setString(2, modelo);
+                carro.setString(3, MARCAS[random.nextInt(MARCAS.length)] + " " + modelo + " " + versao);
+                carro.setDate(4, Date.valueOf(LocalDate.of(1995, 1, 1).plusDays(random.nextInt(30 * 365))));
+                carro.setString(5, PAISES[random.nextInt(PAISES.length)]);
+                carro.setLong(6, fichaId);
+                carro.addBatch();
+                linhas += 2;
+
+                int quantidade = random.nextInt(2 * acessoriosPorCarro + 1);
+                for (int a = 0; a < quantidade; a++) {
+                    String nome = ACESSORIOS[random.nextInt(ACESSORIOS.length)];
+                    acessorio.setLong(1, ++acessorioId);
+                    acessorio.setString(2, nome + " " + modelo);
+                    acessorio.setString(3, nome + " compatível com " + modelo + " " + versao);
+                    acessorio.setInt(4, 2000 + random.nextInt(26));
+                    acessorio.setDouble(5, Math.round(random.nextDouble(50, 5000) * 100) / 100.0);
+                    acessorio.setInt(6, 10 + random.nextInt(231));
+                    acessorio.setLong(7, carroId);
+                    acessorio.addBatch();
+                    linhas++;
+
+                    for (long fabricante : fabricantesDoAcessorio(random, primeiroFabricante)) {
+                        vinculo.setLong(1, acessorioId);
+                        vinculo.setLong(2, fabricante);
+                        vinculo.addBatch();
+                        linhas++;
+                    }
+                }
+
+                if (i % batchSize == 0 || i == carros) {
+                    ficha.executeBatch();
+                    carro.executeBatch();
+                    acessorio.executeBatch();
+                    vinculo.executeBatch();
+                    connection.commit();
+                    if (i % (batchSize * 100) == 0) {
+                        LOG.infof("Massa de dados: %d de %d carros", i, carros);
+                    }
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            // as sequências usam allocationSize 50: o próximo bloco começa depois do maior id gerado
+            statement.execute("alter sequence ficha_tecnica_seq restart with " + (fichaId + 51));
+            statement.execute("alter sequence carro_seq restart with " + (carroId + 51));
+            statement.execute("alter sequence acessorio_seq restart with " + (acessorioId + 51));
+            statement.execute("alter sequence fabricante_seq restart with " + (fabricanteId + 51));
+        }
+        resumos(connection, primeiroCarro, carroId);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+        connection.commit();
+
+        carroIds = new Range(primeiroCarro, carroId);
+        acessorioIds = new Range(primeiroAcessorio, acessorioId);
+        fabricanteIds = new Range(primeiroFabricante, fabricanteId);
+        return linhas;
+    }
+
+    // de 1 a 4 fabricantes distintos por acessório, com os primeiros fabricantes bem mais frequentes
+    private Set<Long> fabricantesDoAcessorio(SplittableRandom random, long primeiroFabricante) {
+        int quantidade = 1 + (int) (4 * Math.pow(random.nextDouble(), 2));
+        Set<Long> escolhidos = new LinkedHashSet<>();
+        while (escolhidos.size() < Math.min(quantidade, fabricantes)) {
+            escolhidos.add(primeiroFabricante + (long) (fabricantes * Math.pow(random.nextDouble(), 3)));
+        }
+        return escolhidos;
+    }
+
+    // mesmo preenchimento da migração 004, restrito aos carros gerados
+    private static void resumos(Connection connection, long primeiro, long ultimo) throws SQLException {
+        try (PreparedStatement resumo = connection.prepareStatement("""
+                insert into ResumoCarro (carro_id, quantidadeAcessorios, valorTotal, tempoInstalacaoTotal)
+                select carro_id, count(*), sum(valor), sum(tempoInstalacaoMinutos)
+                from Acessorio
+                where carro_id between ? and ?
+                group by carro_id""");
+             PreparedStatement nomes = connection.prepareStatement("""
+                insert into resumo_carro_fabricante (carro_id, nome)
+                select distinct a.carro_id, f.nome
+                from Acessorio a
+                join acessorio_fabricante af on af.acessorio_id = a.id
+                join Fabricante f on f.id = af.fabricante_id
+                where a.carro_id between ? and ?""")) {
+            for (PreparedStatement statement : new PreparedStatement[]{resumo, nomes}) {
+                statement.setLong(1, primeiro);
+                statement.setLong(2, ultimo);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select count(*) from " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static long max(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    /** Intervalo fechado de ids; vazio quando {@code last < first}. */
+    public record Range(long first, long last) {
+
+        public long size() {
+            return Math.max(last - first + 1, 0);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.acme;
+
+import jakarta.ws.rs.core.EntityTag;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * ETags derivadas das colunas {@code @Version}. A tag de uma entidade combina a sua versão
+ * com as versões das entidades aninhadas na representação JSON, e pode ser obtida tanto da
+ * entidade carregada quanto de uma consulta que lê apenas as versões.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static EntityTag of(Carro carro) {
+        return tag(carro.versao, carro.fichaTecnica != null ? carro.fichaTecnica.versao : -1);
+    }
+
+    static EntityTag of(Acessorio acessorio) {
+        Carro carro = acessorio.carro;
+        long fabricantes = acessorio.fabricantes.stream().mapToLong(f -> f.versao).sum();
+        return tag(acessorio.versao,
+                carro != null ? carro.versao : -1,
+                carro != null && carro.fichaTecnica != null ? carro.fichaTecnica.versao : -1,
+                fabricantes);
+    }
+
+    static EntityTag of(Fabricante fabricante) {
+        return tag(fabricante.versao);
+    }
+
+    /**
+     * Retorna a ETag atual do carro ou {@code null} se ele não existir.
+     */
+    static EntityTag carro(long id) {
+        return Carro.getEntityManager()
+                .createQuery("select c.versao, coalesce(f.versao, -1) from Carro c left join c.fichaTecnica f where c.id = ?1", Object[].class)
+                .setParameter(1, id)
+                .getResultStream()
+                .findFirst()
+                .map(ETags::tag)
+                .orElse(null);
+    }
+
+    /**
+     * Retorna a ETag atual do acessório ou {@code null} se ele não existir.
+     */
+    static EntityTag acessorio(long id) {
+        return Acessorio.getEntityManager()
+                .createQuery("select a.versao, coalesce(c.versao, -1), coalesce(f.versao, -1),"
+                        + " (select coalesce(sum(fb.versao), 0) from Acessorio a2 join a2.fabricantes fb where a2.id = a.id)"
+                        + " from Acessorio a left join a.carro c left join c.fichaTecnica f where a.id = ?1", Object[].class)
+                .setParameter(1, id)
+                .getResultStream()
+                .findFirst()
+                .map(ETags::tag)
+                .orElse(null);
+    }
+
+    /**
+     * Retorna a ETag atual do fabricante ou {@code null} se ele não existir.
+     */
+    static EntityTag fabricante(long id) {
+        return Fabricante.getEntityManager()
+                .createQuery("select f.versao from Fabricante f where f.id = ?1", Long.class)
+                .setParameter(1, id)
+                .getResultStream()
+                .findFirst()
+                .map(ETags::tag)
+                .orElse(null);
+    }
+
+    private static EntityTag tag(Object... versions) {
+        return new EntityTag(Arrays.stream(versions).map(String::valueOf).collect(Collectors.joining("-")));
+    }
+}
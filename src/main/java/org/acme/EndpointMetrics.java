@@ -0,0 +1,45 @@
+package org.acme;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de cada endpoint, com histograma, identificado pela classe e pelo método do resource e
+ * pelo status da resposta. Complementa o {@code http.server.requests} do Quarkus, que só traz
+ * o template da URI.
+ */
+public class EndpointMetrics {
+
+    private static final String START = EndpointMetrics.class.getName() + ".start";
+
+    @Inject
+    MeterRegistry registry;
+
+    @ServerRequestFilter
+    public void start(ContainerRequestContext request) {
+        request.setProperty(START, System.nanoTime());
+    }
+
+    @ServerResponseFilter
+    public void stop(ContainerRequestContext request, ContainerResponseContext response, SimpleResourceInfo resource) {
+        if (!(request.getProperty(START) instanceof Long start) || resource == null || resource.getResourceClass() == null) {
+            return;
+        }
+        Timer.builder("http.endpoint.requests")
+                .description("Tempo de resposta dos endpoints REST")
+                .tag("resource", resource.getResourceClass().getSimpleName())
+                .tag("method", resource.getMethodName())
+                .tag("status", String.valueOf(response.getStatus()))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,107 @@
+package org.acme;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * JSON já serializado dos registros lidos por id. Cada entrada guarda a ETag com que foi
+ * gerada e só é usada enquanto ela for a ETag atual, lida da consulta de versões que o getById
+ * já faz; assim alterações nas entidades aninhadas também descartam a entrada. Em um acerto a
+ * resposta sai direto dos bytes, sem carregar a entidade nem passar pelo Jackson.
+ */
+@ApplicationScoped
+public class EntityJsonCache {
+
+    @Inject
+    ObjectMapper mapper;
+
+    @ConfigProperty(name = "entity-json-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "entity-json-cache.max-weight", defaultValue = "8M")
+    MemorySize maxWeight;
+
+    private Cache<Key, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.asLongValue())
+                .weigher((Key key, Entry entry) -> entry.json.length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param etag   ETag atual do registro
+     * @param loader carrega a entidade quando não há JSON guardado para a ETag; {@code null} se ela não existir
+     * @param tagOf  ETag da entidade carregada
+     */
+    public <T> Response get(Class<T> type, long id, EntityTag etag, Supplier<T> loader, Function<T, EntityTag> tagOf) {
+        Key key = new Key(type, id);
+        if (enabled) {
+            Entry cached = cache.getIfPresent(key);
+            if (cached != null && cached.etag.equals(etag)) {
+                return Response.ok(cached.json, MediaType.APPLICATION_JSON_TYPE).tag(cached.etag).build();
+            }
+        }
+
+        T entity = loader.get();
+        if (entity == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        EntityTag tag = tagOf.apply(entity);
+        byte[] json;
+        try {
+            json = mapper.writerFor(type).writeValueAsBytes(entity);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (enabled) {
+            cache.put(key, new Entry(tag, json));
+        }
+        return Response.ok(json, MediaType.APPLICATION_JSON_TYPE).tag(tag).build();
+    }
+
+    public void evict(Class<?> type, Long id) {
+        if (id != null) {
+            cache.invalidate(new Key(type, id));
+        }
+    }
+
+    public void evict(Class<?> type, Collection<Long> ids) {
+        ids.forEach(id -> evict(type, id));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long weight() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    private record Key(Class<?> type, long id) {}
+
+    private record Entry(EntityTag etag, byte[] json) {}
+}
@@ -0,0 +1,104 @@
+package org.acme;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escreve todos os registros de uma entidade diretamente na resposta, lendo-os por um
+ * cursor do Hibernate com fetch size limitado e limpando a sessão a cada lote, de forma
+ * que o consumo de memória não dependa do tamanho da tabela.
+ */
+@ApplicationScoped
+public class EntityStreamer {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    @Inject
+    ObjectMapper mapper;
+
+    @ConfigProperty(name = "stream.fetch-size", defaultValue = "100")
+    int fetchSize;
+
+    /**
+     * @param ndjson quando true escreve um objeto JSON por linha; caso contrário, um único array JSON
+     */
+    public <T> StreamingOutput stream(Class<T> type, boolean ndjson) {
+        return stream(type, null, ndjson);
+    }
+
+    /**
+     * @param entityGraph nome do entity graph aplicado à consulta, ou {@code null}
+     */
+    public <T> StreamingOutput stream(Class<T> type, String entityGraph, boolean ndjson) {
+        return output -> QuarkusTransaction.requiringNew().run(() -> write(type, entityGraph, ndjson, output));
+    }
+
+    private <T> void write(Class<T> type, String entityGraph, boolean ndjson, OutputStream output) {
+        Session session = Panache.getEntityManager(type).unwrap(Session.class);
+        SelectionQuery<T> query = session.createSelectionQuery("from " + type.getSimpleName() + " order by id", type);
+        if (entityGraph != null) {
+            query.setHint(FetchPlans.LOAD_GRAPH, FetchPlans.graph(type, entityGraph));
+        }
+        try (ScrollableResults<T> rows = query
+                .setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY);
+             JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+
+            ObjectWriter writer = mapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+
+            // o lote inteiro fica na sessão antes de ser escrito, para que as coleções lazy
+            // (ex.: Acessorio.fabricantes) sejam carregadas em lote e não uma consulta por linha
+            List<T> chunk = new ArrayList<>(fetchSize);
+            while (rows.next()) {
+                chunk.add(rows.get());
+                if (chunk.size() == fetchSize) {
+                    writeChunk(writer, generator, chunk, ndjson);
+                    session.clear();
+                }
+            }
+            writeChunk(writer, generator, chunk, ndjson);
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> void writeChunk(ObjectWriter writer, JsonGenerator generator, List<T> chunk, boolean ndjson) throws IOException {
+        for (T row : chunk) {
+            writer.writeValue(generator, row);
+            if (ndjson) {
+                generator.writeRaw('\n');
+            }
+        }
+        generator.flush();
+        chunk.clear();
+    }
+}
@@ -0,0 +1,114 @@
+package org.acme;
+
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.List;
+
+/**
+ * Totais da frota calculados no banco com um único GROUP BY por endpoint. Os resultados ficam
+ * no cache de consultas do Hibernate, que os descarta quando alguma das tabelas envolvidas é alterada.
+ */
+@RunOnVirtualThread
+@Path("/estatisticas")
+@Produces(MediaType.APPLICATION_JSON)
+public class EstatisticaResource {
+
+    @GET
+    @Path("/valor-acessorios-por-carro")
+    @Operation(
+            summary = "Retorna o valor total e médio dos acessórios de cada carro",
+            description = "Agrupa os acessórios por carro; carros sem acessórios não aparecem na lista"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lista retornada com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = ValorAcessoriosPorCarro.class, type = SchemaType.ARRAY)
+            )
+    )
+    public Response valorAcessoriosPorCarro(){
+        return Response.ok(list(
+                "select new org.acme.ValorAcessoriosPorCarro(c.id, c.modelo, count(a), sum(a.valor), avg(a.valor))"
+                        + " from Acessorio a join a.carro c group by c.id, c.modelo order by c.id",
+                ValorAcessoriosPorCarro.class)).build();
+    }
+
+    @GET
+    @Path("/tempo-instalacao-por-fabricante")
+    @Operation(
+            summary = "Retorna a soma dos minutos de instalação dos acessórios de cada fabricante",
+            description = "Agrupa os acessórios por fabricante; fabricantes sem acessórios não aparecem na lista"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lista retornada com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = TempoInstalacaoPorFabricante.class, type = SchemaType.ARRAY)
+            )
+    )
+    public Response tempoInstalacaoPorFabricante(){
+        return Response.ok(list(
+                "select new org.acme.TempoInstalacaoPorFabricante(f.id, f.nome, count(a), sum(a.tempoInstalacaoMinutos))"
+                        + " from Acessorio a join a.fabricantes f group by f.id, f.nome order by f.id",
+                TempoInstalacaoPorFabricante.class)).build();
+    }
+
+    @GET
+    @Path("/carros-por-pais")
+    @Operation(
+            summary = "Retorna a quantidade de carros por país de montagem",
+            description = "Agrupa os carros pelo país de montagem, em ordem alfabética"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lista retornada com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = CarrosPorPais.class, type = SchemaType.ARRAY)
+            )
+    )
+    public Response carrosPorPais(){
+        return Response.ok(list(
+                "select new org.acme.CarrosPorPais(c.paisDeMontagem, count(c))"
+                        + " from Carro c group by c.paisDeMontagem order by c.paisDeMontagem",
+                CarrosPorPais.class)).build();
+    }
+
+    @GET
+    @Path("/acessorios-por-ano")
+    @Operation(
+            summary = "Retorna a distribuição dos acessórios por ano de aquisição",
+            description = "Agrupa os acessórios pelo ano de aquisição, com a quantidade e o valor total de cada ano"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lista retornada com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = AcessoriosPorAno.class, type = SchemaType.ARRAY)
+            )
+    )
+    public Response acessoriosPorAno(){
+        return Response.ok(list(
+                "select new org.acme.AcessoriosPorAno(a.anoAquisicao, count(a), sum(a.valor))"
+                        + " from Acessorio a group by a.anoAquisicao order by a.anoAquisicao",
+                AcessoriosPorAno.class)).build();
+    }
+
+    private static <T> List<T> list(String hql, Class<T> type) {
+        return Panache.getEntityManager()
+                .createQuery(hql, type)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+    }
+}
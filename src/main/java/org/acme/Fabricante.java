@@ -5,17 +5,25 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
 public class Fabricante extends PanacheEntityBase {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fabricante_seq")
+    @SequenceGenerator(name = "fabricante_seq", sequenceName = "fabricante_seq", allocationSize = 50)
     @Schema(readOnly = true, example = "1")
     public Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Schema(readOnly = true, example = "0")
+    public long versao;
+
     @NotBlank(message = "O nome da fabricante não pode ser vazio")
     @Size(min = 2, max = 50, message = "Nome da fabricante deve ter entre 2 e 50 caracteres")
     public String nome;
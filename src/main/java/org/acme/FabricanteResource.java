@@ -1,14 +1,24 @@
 package org.acme;
 
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.panache.common.Sort;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.hibernate.jpa.HibernateHints;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -17,14 +27,40 @@ import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
+@RunOnVirtualThread
 @Path("/fabricantes")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class FabricanteResource {
 
+    @Inject
+    SearchExecutor searchExecutor;
+
+    @Inject
+    SearchResponseCache responseCache;
+
+    @Inject
+    EntityJsonCache jsonCache;
+
+    @Inject
+    FullTextIndex fullTextIndex;
+
+    @Inject
+    EntityStreamer entityStreamer;
+
+    @Inject
+    ResumoCarroWriter resumoWriter;
+
+    @ConfigProperty(name = "bulk.chunk-size", defaultValue = "500")
+    int bulkChunkSize;
+
     @GET
     @Operation(
             summary = "Retorna todos os fabricantes (getAll)",
@@ -37,8 +73,41 @@ public class FabricanteResource {
                     schema = @Schema(implementation = Fabricante.class, type = SchemaType.ARRAY)
             )
     )
-    public Response getAll(){
-        return Response.ok(Fabricante.listAll()).build();
+    public Response getAll(
+            @Parameter(description = "Campos retornados, separados por vírgula (ex.: fields=id,nome); quando omitido, retorna os registros completos")
+            @QueryParam("fields") String fields
+    ){
+        SparseFields sparse = SparseFields.parse(fields, SparseFields.FABRICANTE);
+        if (sparse == null) {
+            return Response.ok(Fabricante.findAll().withHint(HibernateHints.HINT_CACHEABLE, true).list()).build();
+        }
+        if (!sparse.isValid()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(sparse.error()).build();
+        }
+        return Response.ok(Fabricante.find(sparse.require("id").hql(Fabricante.class, null)).withHint(HibernateHints.HINT_CACHEABLE, true).list()).build();
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces({MediaType.APPLICATION_JSON, EntityStreamer.NDJSON})
+    @Operation(
+            summary = "Retorna todos os fabricantes em streaming (getAll)",
+            description = "Retorna todos os fabricantes lidos em lotes por um cursor do banco e escritos na resposta à medida que são lidos, como array JSON ou NDJSON (um objeto por linha)"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Lista retornada com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = Fabricante.class, type = SchemaType.ARRAY)
+            )
+    )
+    public Response stream(
+            @Parameter(description = "Formato da resposta: json (array) ou ndjson (um objeto por linha)")
+            @QueryParam("format") @DefaultValue("json") String format){
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        return Response.ok(entityStreamer.stream(Fabricante.class, ndjson))
+                .type(ndjson ? EntityStreamer.NDJSON : MediaType.APPLICATION_JSON)
+                .build();
     }
 
     @GET
@@ -54,18 +123,28 @@ public class FabricanteResource {
                     schema = @Schema(implementation = Fabricante.class)
             )
     )
+    @APIResponse(
+            responseCode = "304",
+            description = "Não modificado - a ETag enviada em If-None-Match ainda é a atual"
+    )
     @APIResponse(
             responseCode = "404",
             description = "Item não encontrado"
     )
     public Response getById(
             @Parameter(description = "Id do fabricante a ser pesquisado", required = true)
-            @PathParam("id") long id){
-        Fabricante entity = Fabricante.findById(id);
-        if(entity == null){
+            @PathParam("id") long id,
+            @Context Request request){
+        EntityTag etag = ETags.fabricante(id);
+        if(etag == null){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        return Response.ok(entity).build();
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if(notModified != null){
+            return notModified.build();
+        }
+
+        return jsonCache.get(Fabricante.class, id, etag, () -> Fabricante.findById(id), ETags::of);
     }
 
     @GET
@@ -84,49 +163,131 @@ public class FabricanteResource {
     public Response search(
             @Parameter(description = "Query de buscar por nome ou detalhes")
             @QueryParam("q") String q,
-            @Parameter(description = "Campo de ordenação da lista de retorno")
+            @Parameter(description = "Campo de ordenação da lista de retorno; \"relevance\" ordena pela relevância da busca textual")
             @QueryParam("sort") @DefaultValue("id") String sort,
             @Parameter(description = "Esquema de filtragem de fabricantes por ordem crescente ou decrescente")
             @QueryParam("direction") @DefaultValue("asc") String direction,
             @Parameter(description = "Define qual página será retornada na response")
             @QueryParam("page") @DefaultValue("0") int page,
             @Parameter(description = "Define quantos objetos serão retornados por query")
-            @QueryParam("size") @DefaultValue("4") int size
+            @QueryParam("size") @DefaultValue("4") int size,
+            @Parameter(description = "Cursor opaco retornado em NextCursor; quando informado, a busca continua a partir do último item em vez de usar a página")
+            @QueryParam("cursor") String cursor,
+            @Parameter(description = "Define se o total de fabricantes deve ser calculado; quando false, TotalFabricantes e TotalPages retornam -1")
+            @QueryParam("count") @DefaultValue("true") boolean count,
+            @Parameter(description = "Campos retornados em Fabricantes, separados por vírgula (ex.: fields=id,nome); o id e o campo de ordenação são sempre incluídos")
+            @QueryParam("fields") String fields,
+            @Context UriInfo uriInfo
     ){
-        Set<String> allowed = Set.of("id", "nome", "detalhes");
+        return responseCache.get(Fabricante.class, uriInfo,
+                () -> buscar(q, sort, direction, page, size, cursor, count, fields),
+                fullTextIndex.cacheKey(q), sort, "desc".equalsIgnoreCase(direction), page, size, cursor, count, fields);
+    }
+
+    private Response buscar(String q, String sort, String direction, int page, int size, String cursor, boolean count, String fields){
+        SparseFields sparse = SparseFields.parse(fields, SparseFields.FABRICANTE);
+        if (sparse != null && !sparse.isValid()) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(sparse.error()).build();
+        }
+
+        Set<String> allowed = Set.of("id", "nome", "detalhes", "relevance");
         if(!allowed.contains(sort)){
             sort = "id";
         }
 
-        Sort sortObj = Sort.by(
-                sort,
-                "desc".equalsIgnoreCase(direction) ? Sort.Direction.Descending : Sort.Direction.Ascending
-        );
+        String filter = null;
+        List<Object> params = new ArrayList<>();
+        SearchExecutor.Total textTotal = null;
+        if (q != null && !q.isBlank()) {
+            q = q.trim();
+            if (fullTextIndex.isEnabled()) {
+                String text = q;
+                if ("relevance".equals(sort)) {
+                    textTotal = new SearchExecutor.Total(text, () -> fullTextIndex.count(FullTextIndex.FABRICANTE, text));
+                } else {
+                    // a ordenação por coluna precisa de todos os ids; o total é a quantidade deles
+                    List<Long> ids = fullTextIndex.matches(FullTextIndex.FABRICANTE, text);
+                    filter = "id in ?1";
+                    params.add(ids);
+                    textTotal = new SearchExecutor.Total(text, ids::size);
+                }
+            } else {
+                filter = "lower(nome) like ?1 or lower(detalhes) like ?1";
+                params.add("%" + q.toLowerCase() + "%");
+            }
+        }
 
-        int effectivePage = Math.max(page, 0);
+        if ("relevance".equals(sort) && textTotal == null) {
+            sort = "id";
+        }
 
-        PanacheQuery<Fabricante> query;
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        boolean relevance = "relevance".equals(sort);
+        Sort sortObj = relevance ? null : KeysetCursor.sort(sort, descending);
 
-        if (q == null || q.isBlank()) {
-            query = Fabricante.findAll(sortObj);
-        } else {
-            query = Fabricante.find(
-                    "lower(nome) like ?1 or lower(detalhes) like ?1", sortObj, "%" + q.toLowerCase() + "%");
+        KeysetCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = KeysetCursor.decode(cursor);
+            if (relevance || after == null || !after.matches(sort, descending)) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("Cursor inválido para a ordenação informada").build();
+            }
         }
 
-        List<Fabricante> fabricantes = query.page(effectivePage, size).list();
+        int effectivePage = after != null ? 0 : Math.max(page, 0);
+
+        if (sparse != null) {
+            sparse.require("id", sort);
+        }
+
+        List<Long> window = relevance
+                ? List.copyOf(fullTextIndex.search(FullTextIndex.FABRICANTE, q, SearchExecutor.rankedWindow(effectivePage * size, size)).keySet())
+                : null;
+
+        SearchExecutor.SearchPage<?> result;
+        if (relevance && sparse != null) {
+            result = searchExecutor.ranked(Fabricante.class, window,
+                    ids -> SparseFields.rows(Fabricante.find(sparse.hql(Fabricante.class, "id in ?1"), ids)).list(),
+                    SparseFields::id, textTotal, effectivePage * size, size, count);
+        } else if (relevance) {
+            result = searchExecutor.ranked(Fabricante.class, window,
+                    ids -> Fabricante.<Fabricante>find("id in ?1", ids).list(),
+                    item -> item.id, textTotal, effectivePage * size, size, count);
+        } else if (sparse != null) {
+            PanacheQuery<Map<String, Object>> query = SparseFields.rows(after != null
+                    ? Fabricante.find(sparse.hql(Fabricante.class, after.where(filter, params)), sortObj, after.params(params))
+                    : Fabricante.find(sparse.hql(Fabricante.class, filter), sortObj, params.toArray()));
+
+            result = searchExecutor.execute(
+                    Fabricante.class, query, filter, params, textTotal, effectivePage * size, size, count, after != null);
+        } else {
+            PanacheQuery<Fabricante> query;
+            if (after != null) {
+                query = Fabricante.find(after.where(filter, params), sortObj, after.params(params));
+            } else if (filter == null) {
+                query = Fabricante.findAll(sortObj);
+            } else {
+                query = Fabricante.find(filter, sortObj, params.toArray());
+            }
+
+            result = searchExecutor.execute(
+                    Fabricante.class, query, filter, params, textTotal, effectivePage * size, size, count, after != null);
+        }
 
         var response = new SearchFabricanteResponse();
-        response.Fabricantes = fabricantes;
-        response.TotalFabricantes = (int) query.count();
-        response.TotalPages = query.pageCount();
-        response.HasMore = effectivePage < query.pageCount() - 1;
-        URI nextUri = UriBuilder.fromPath("http://localhost:8080/fabricantes/search")
-                .queryParam("q", q != null ? q : "")
-                .queryParam("page", effectivePage + 1)
-                .queryParam("size", size)
-                .build();
-        response.NextPage = response.HasMore ? nextUri.toString() : "";
+        response.Fabricantes = result.items();
+        response.TotalFabricantes = result.total();
+        response.TotalPages = result.totalPages();
+        response.HasMore = result.hasMore();
+
+        if (response.HasMore) {
+            if (!relevance) {
+                response.NextCursor = KeysetCursor.after(response.Fabricantes.get(response.Fabricantes.size() - 1), sort, descending).encode();
+            }
+            response.Next = after != null
+                    ? new PagedResponse.NextPageParam("cursor", response.NextCursor)
+                    : new PagedResponse.NextPageParam("page", String.valueOf(effectivePage + 1));
+        }
 
         return Response.ok(response).build();
     }
@@ -155,6 +316,7 @@ public class FabricanteResource {
     @Transactional
     public Response insert(@Valid Fabricante fabricante){
         Fabricante.persist(fabricante);
+        searchExecutor.invalidate(Fabricante.class);
 
         URI location = UriBuilder.fromResource(FabricanteResource.class).path("{id}").build(fabricante.id);
         return Response
@@ -183,22 +345,110 @@ public class FabricanteResource {
     @Transactional
     @Path("{id}")
     public Response delete(@PathParam("id") long id){
-        Fabricante entity = Fabricante.findById(id);
-        if(entity == null){
+        var result = new BulkItemResult(0, id, null, null);
+        deleteIds(List.of(id), List.of(result));
+
+        if(result.Status == BulkItemResult.ItemStatus.NOT_FOUND){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-
-        long musicasVinculadas = Acessorio.count("?1 MEMBER OF fabricantes", entity);
-        if(musicasVinculadas > 0){
+        if(result.Status == BulkItemResult.ItemStatus.CONFLICT){
+            // parte da tabela de junção pelo índice de fabricante_id; só roda no caminho de erro, para a mensagem
+            long musicasVinculadas = Acessorio.count("from Acessorio a join a.fabricantes f where f.id = ?1", id);
             return Response.status(Response.Status.CONFLICT)
                     .entity("Não é possível deletar o fabricante. Existem " + musicasVinculadas + " acessório(s) vinculado(s).")
                     .build();
         }
 
-        Fabricante.deleteById(id);
+        searchExecutor.invalidate(Fabricante.class);
+        jsonCache.evict(Fabricante.class, id);
         return Response.noContent().build();
     }
 
+    @DELETE
+    @Path("/bulk")
+    @Operation(
+            summary = "Remove vários registros da lista de fabricantes (bulk delete)",
+            description = "Remove os fabricantes cujos ids são enviados como array JSON, em transações por lote. Fabricantes com acessórios vinculados não são removidos e retornam CONFLICT. Retorna o resultado de cada id."
+    )
+    @RequestBody(
+            required = true,
+            content = @Content(
+                    schema = @Schema(implementation = Long.class, type = SchemaType.ARRAY)
+            )
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Resultado de cada id, na ordem recebida",
+            content = @Content(
+                    schema = @Schema(implementation = BulkResponse.class))
+    )
+    public Response bulkDelete(List<Long> ids){
+        var response = new BulkResponse();
+        List<Long> pending = ids != null ? ids.stream().filter(Objects::nonNull).toList() : List.of();
+
+        for (int start = 0; start < pending.size(); start += bulkChunkSize) {
+            List<Long> chunk = pending.subList(start, Math.min(start + bulkChunkSize, pending.size()));
+            List<BulkItemResult> chunkResults = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.add(new BulkItemResult(start + i, chunk.get(i), null, null));
+            }
+            try {
+                QuarkusTransaction.requiringNew().run(() -> deleteIds(chunk, chunkResults));
+            } catch (RuntimeException e) {
+                chunkResults.forEach(r -> {
+                    r.Status = BulkItemResult.ItemStatus.FAILED;
+                    r.Message = "Lote não removido: " + e.getMessage();
+                });
+            }
+            response.Results.addAll(chunkResults);
+        }
+
+        response.Succeeded = (int) response.Results.stream().filter(r -> r.Status == BulkItemResult.ItemStatus.DELETED).count();
+        response.Failed = response.Results.size() - response.Succeeded;
+        searchExecutor.invalidate(Fabricante.class);
+        response.Results.forEach(r -> jsonCache.evict(Fabricante.class, r.Id));
+        return Response.ok(response).build();
+    }
+
+    /**
+     * Remove os fabricantes sem acessórios vinculados sem carregar as entidades: uma consulta com
+     * EXISTS sobre a tabela de junção e um DELETE em conjunto.
+     */
+    private static void deleteIds(List<Long> ids, List<BulkItemResult> results){
+        Set<Long> existentes = new HashSet<>();
+        Set<Long> vinculados = new HashSet<>();
+        Fabricante.getEntityManager()
+                .createQuery("select f.id, case when exists (select 1 from Acessorio a join a.fabricantes af where af.id = f.id) then true else false end"
+                        + " from Fabricante f where f.id in ?1", Object[].class)
+                .setParameter(1, ids)
+                .getResultList()
+                .forEach(row -> {
+                    existentes.add((Long) row[0]);
+                    if ((Boolean) row[1]) {
+                        vinculados.add((Long) row[0]);
+                    }
+                });
+
+        List<Long> fabricantes = existentes.stream().filter(id -> !vinculados.contains(id)).toList();
+        if (!fabricantes.isEmpty()) {
+            Fabricante.delete("id in ?1", fabricantes);
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            BulkItemResult result = results.get(i);
+            Long id = ids.get(i);
+            if (!existentes.contains(id)) {
+                result.Status = BulkItemResult.ItemStatus.NOT_FOUND;
+                result.Message = "Fabricante com id " + id + " não existe";
+            } else if (vinculados.contains(id)) {
+                result.Status = BulkItemResult.ItemStatus.CONFLICT;
+                result.Message = "Fabricante possui acessórios vinculados";
+            } else {
+                result.Status = BulkItemResult.ItemStatus.DELETED;
+            }
+        }
+    }
+
     @PUT
     @Operation(
             summary = "Altera um registro da lista de fabricantes (update)",
@@ -221,17 +471,43 @@ public class FabricanteResource {
             responseCode = "404",
             description = "Item não encontrado"
     )
+    @APIResponse(
+            responseCode = "412",
+            description = "Pré-condição falhou - a ETag enviada em If-Match não é a atual"
+    )
     @Transactional
     @Path("{id}")
-    public Response update(@PathParam("id") long id,@Valid Fabricante newFabricante){
+    public Response update(@PathParam("id") long id, @Valid Fabricante newFabricante, @Context Request request){
         Fabricante entity = Fabricante.findById(id);
         if(entity == null){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        Response.ResponseBuilder preconditionFailed = request.evaluatePreconditions(ETags.of(entity));
+        if(preconditionFailed != null){
+            return preconditionFailed.build();
+        }
 
+        String nomeAnterior = entity.nome;
         entity.nome = newFabricante.nome;
         entity.detalhes = newFabricante.detalhes;
 
-        return Response.status(Response.Status.OK).entity(entity).build();
+        searchExecutor.invalidate(Fabricante.class);
+        jsonCache.evict(Fabricante.class, id);
+
+        try {
+            Fabricante.flush();
+        } catch (OptimisticLockException e) {
+            QuarkusTransaction.setRollbackOnly();
+            return Response.status(Response.Status.PRECONDITION_FAILED)
+                    .entity("O fabricante foi alterado por outra requisição").build();
+        }
+        if (!entity.nome.equals(nomeAnterior)) {
+            resumoWriter.refresh(Acessorio.getEntityManager()
+                    .createQuery("select distinct a.carro.id from Acessorio a join a.fabricantes f where f.id = ?1 and a.carro is not null", Long.class)
+                    .setParameter(1, id)
+                    .getResultList());
+        }
+
+        return Response.status(Response.Status.OK).entity(entity).tag(ETags.of(entity)).build();
     }
 }
\ No newline at end of file
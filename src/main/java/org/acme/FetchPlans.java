@@ -0,0 +1,24 @@
+package org.acme;
+
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import jakarta.persistence.EntityGraph;
+
+/**
+ * Aplica os entity graphs declarados nas entidades às consultas de listagem, para que as
+ * associações serializadas sejam carregadas no mesmo SELECT em vez de uma consulta por linha.
+ */
+final class FetchPlans {
+
+    static final String LOAD_GRAPH = "jakarta.persistence.loadgraph";
+
+    private FetchPlans() {}
+
+    static EntityGraph<?> graph(Class<?> type, String name) {
+        return Panache.getEntityManager(type).getEntityGraph(name);
+    }
+
+    static <T> PanacheQuery<T> apply(PanacheQuery<T> query, Class<T> type, String name) {
+        return query.withHint(LOAD_GRAPH, graph(type, name));
+    }
+}
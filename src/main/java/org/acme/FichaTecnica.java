@@ -5,14 +5,22 @@ import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@Cacheable
 public class FichaTecnica extends PanacheEntityBase {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ficha_tecnica_seq")
+    @SequenceGenerator(name = "ficha_tecnica_seq", sequenceName = "ficha_tecnica_seq", allocationSize = 50)
     @Schema(readOnly = true, example = "1")
     public Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Schema(readOnly = true, example = "0")
+    public long versao;
+
     @Size(max = 2000, message = "Os detalhes do motor não podem ultrapassar 2000 caracteres")
     @Column(length = 2000)
     public String detalhesDoMotor;
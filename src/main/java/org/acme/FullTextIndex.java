@@ -0,0 +1,257 @@
+package org.acme;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Índice textual das buscas, mantido pelo FullTextLucene do H2. Os índices são criados na
+ * inicialização e atualizados pelos triggers do próprio H2 a cada insert, update e delete.
+ */
+@ApplicationScoped
+public class FullTextIndex {
+
+    private static final Logger LOG = Logger.getLogger(FullTextIndex.class);
+
+    static final String CARRO = "CARRO";
+    static final String ACESSORIO = "ACESSORIO";
+    static final String FABRICANTE = "FABRICANTE";
+    static final String FICHA_TECNICA = "FICHATECNICA";
+
+    private static final Map<String, String> INDEXED_COLUMNS = Map.of(
+            CARRO, "MODELO,NOMECOMPLETOVERSAO,PAISDEMONTAGEM",
+            ACESSORIO, "NOME,DESCRICAO",
+            FABRICANTE, "NOME,DETALHES",
+            FICHA_TECNICA, "DETALHESDOMOTOR"
+    );
+
+    /**
+     * Restringe a consulta aos documentos de uma tabela. O índice é único para todas as tabelas
+     * e não tem um campo com o nome da tabela, mas cada coluna indexada vira um campo: basta
+     * exigir uma coluna obrigatória que só a tabela tem. NOME existe em acessórios e
+     * fabricantes, então o fabricante é o documento com NOME e sem DESCRICAO.
+     */
+    private static final Map<String, String> TABLE_FILTERS = Map.of(
+            CARRO, "MODELO:[* TO *]",
+            ACESSORIO, "DESCRICAO:[* TO *]",
+            FABRICANTE, "(NOME:[* TO *] -DESCRICAO:[* TO *])",
+            FICHA_TECNICA, "DETALHESDOMOTOR:[* TO *]"
+    );
+
+    @Inject
+    DataSource dataSource;
+
+    @ConfigProperty(name = "search.full-text.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!"h2".equals(dbKind)) {
+            LOG.warnf("Busca textual desativada: o FullTextLucene requer H2 e o datasource é %s", dbKind);
+            enabled = false;
+            return;
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS FTL_INIT FOR 'org.h2.fulltext.FullTextLucene.init'");
+            statement.execute("CALL FTL_INIT()");
+            for (Map.Entry<String, String> index : INDEXED_COLUMNS.entrySet()) {
+                createIndexIfMissing(connection, index.getKey(), index.getValue());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível inicializar a busca textual", e);
+        }
+    }
+
+    /**
+     * Os {@code limit} ids da tabela mais relevantes para o texto, do mais para o menos relevante,
+     * com o score de cada um.
+     */
+    public Map<Long, Float> search(String table, String text, int limit) {
+        Map<Long, Float> hits = new LinkedHashMap<>();
+        String query = toLuceneQuery(table, text);
+        if (query.isEmpty() || limit <= 0) {
+            return hits;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT KEYS, SCORE FROM FTL_SEARCH_DATA(?, ?, 0)")) {
+            statement.setString(1, query);
+            statement.setInt(2, limit);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    Object[] keys = (Object[]) rows.getArray(1).getArray();
+                    hits.putIfAbsent(Long.valueOf(keys[0].toString()), rows.getFloat(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha na busca textual", e);
+        }
+        return hits;
+    }
+
+    /**
+     * Todos os ids da tabela em que o texto aparece, em qualquer ordem.
+     */
+    public List<Long> matches(String table, String text) {
+        return matches(table, text, Map.of());
+    }
+
+    /**
+     * Todos os ids da tabela em que o texto aparece na própria tabela ou em uma das tabelas
+     * relacionadas, cada uma com a coluna da tabela que aponta para ela.
+     */
+    public List<Long> matches(String table, String text, Map<String, String> related) {
+        List<Long> ids = new ArrayList<>();
+        if (normalize(text).isEmpty()) {
+            return ids;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = prepareMatch(connection, "SELECT ID", table, text, related);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha na busca textual", e);
+        }
+        return ids;
+    }
+
+    public long count(String table, String text) {
+        return count(table, text, Map.of());
+    }
+
+    /**
+     * Quantidade de ids que {@link #matches(String, String, Map)} retornaria, sem ler os ids.
+     */
+    public long count(String table, String text, Map<String, String> related) {
+        if (normalize(text).isEmpty()) {
+            return 0;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = prepareMatch(connection, "SELECT COUNT(*)", table, text, related);
+             ResultSet rows = statement.executeQuery()) {
+            rows.next();
+            return rows.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha na busca textual", e);
+        }
+    }
+
+    /**
+     * Une os resultados do índice à tabela, o que descarta entradas de registros que já não existem.
+     * O FTL_SEARCH_DATA fica no FROM porque, dentro de um IN ou EXISTS, o H2 refaz a busca para cada linha.
+     */
+    private static PreparedStatement prepareMatch(Connection connection, String select, String table, String text,
+                                                  Map<String, String> related) throws SQLException {
+        String search = "FTL_SEARCH_DATA(?, " + Integer.MAX_VALUE + ", 0) F";
+        StringBuilder sql = new StringBuilder(select).append(" FROM (SELECT T.ID FROM ").append(search)
+                .append(" JOIN ").append(table).append(" T ON T.ID = CAST(F.KEYS[1] AS BIGINT)");
+        List<String> queries = new ArrayList<>(List.of(toLuceneQuery(table, text)));
+        for (Map.Entry<String, String> relation : related.entrySet()) {
+            sql.append(" UNION SELECT T.ID FROM ").append(search).append(" JOIN ").append(table)
+                    .append(" T ON T.").append(relation.getValue()).append(" = CAST(F.KEYS[1] AS BIGINT)");
+            queries.add(toLuceneQuery(relation.getKey(), text));
+        }
+        sql.append(")");
+
+        PreparedStatement statement = connection.prepareStatement(sql.toString());
+        for (int i = 0; i < queries.size(); i++) {
+            statement.setString(i + 1, queries.get(i));
+        }
+        return statement;
+    }
+
+    /**
+     * Cada termo casa por palavra inteira ou por prefixo; a palavra inteira pontua mais,
+     * já que consultas por prefixo têm score constante no Lucene. Retorna vazio quando o
+     * texto não tem nenhum termo.
+     */
+    static String toLuceneQuery(String table, String text) {
+        String terms = Arrays.stream(normalize(text).split(" "))
+                .map(FullTextIndex::escape)
+                .filter(term -> !term.isEmpty())
+                .map(term -> "(" + term + "^2 OR " + term + "*)")
+                .collect(Collectors.joining(" "));
+        return terms.isEmpty() ? "" : "+(" + terms + ") +" + TABLE_FILTERS.get(table);
+    }
+
+    /**
+     * Texto da busca na chave das respostas guardadas. As buscas não diferenciam caixa e, com o
+     * índice textual, também ignoram a quantidade de espaços; o like compara os espaços como vieram.
+     */
+    public String cacheKey(String text) {
+        if (text == null) {
+            return null;
+        }
+        return enabled ? normalize(text) : text.trim().toLowerCase();
+    }
+
+    /**
+     * Texto da busca sem diferença de caixa e de espaços, que é o que define o resultado.
+     */
+    static String normalize(String text) {
+        return text.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    private static String escape(String term) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : term.toCharArray()) {
+            if ("\\+-!():^[]\"{}~*?|&/".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private void createIndexIfMissing(Connection connection, String table, String columns) throws SQLException {
+        boolean triggerExists;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TRIGGERS WHERE TRIGGER_SCHEMA = 'PUBLIC' AND TRIGGER_NAME = ?")) {
+            statement.setString(1, "FTL_" + table);
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                triggerExists = rows.getLong(1) > 0;
+            }
+        }
+        if (triggerExists) {
+            return;
+        }
+
+        try (PreparedStatement drop = connection.prepareStatement("DELETE FROM FTL.INDEXES WHERE SCHEMA = 'PUBLIC' AND \"TABLE\" = ?")) {
+            drop.setString(1, table);
+            drop.executeUpdate();
+        }
+        try (PreparedStatement create = connection.prepareStatement("CALL FTL_CREATE_INDEX('PUBLIC', ?, ?)")) {
+            create.setString(1, table);
+            create.setString(2, columns);
+            create.execute();
+        }
+        LOG.infof("Índice textual criado para %s (%s)", table, columns);
+    }
+}
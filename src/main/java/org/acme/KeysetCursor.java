@@ -0,0 +1,151 @@
+package org.acme;
+
+import io.quarkus.panache.common.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cursor opaco da paginação por keyset: guarda o valor do campo de ordenação e o id
+ * do último item retornado, permitindo continuar a busca sem OFFSET.
+ */
+final class KeysetCursor {
+
+    private static final String SEPARATOR = "\u001F";
+
+    final String sort;
+    final boolean descending;
+    final Object value;
+    final long id;
+
+    private KeysetCursor(String sort, boolean descending, Object value, long id) {
+        this.sort = sort;
+        this.descending = descending;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Ordenação determinística usada pela paginação: o campo pedido, desempatado pelo id,
+     * com nulos no início em ordem crescente e no fim em ordem decrescente.
+     */
+    static Sort sort(String field, boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.Descending : Sort.Direction.Ascending;
+        if ("id".equals(field)) {
+            return Sort.by("id", direction);
+        }
+        Sort.NullPrecedence nulls = descending ? Sort.NullPrecedence.NULLS_LAST : Sort.NullPrecedence.NULLS_FIRST;
+        return Sort.by(field, direction, nulls).and("id", direction);
+    }
+
+    /**
+     * @param last última entidade da página, ou a última linha de uma projeção por {@code fields}
+     */
+    static KeysetCursor after(Object last, String sort, boolean descending) {
+        if (last instanceof Map<?, ?> row) {
+            return new KeysetCursor(sort, descending, row.get(sort), (Long) row.get("id"));
+        }
+        try {
+            Object value = last.getClass().getMethod(getter(sort)).invoke(last);
+            Long id = (Long) last.getClass().getMethod(getter("id")).invoke(last);
+            return new KeysetCursor(sort, descending, value, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Campo de ordenação inválido: " + sort, e);
+        }
+    }
+
+    /**
+     * Retorna o cursor decodificado ou {@code null} se o token for inválido.
+     */
+    static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 5) {
+                return null;
+            }
+            return new KeysetCursor(parts[0], "desc".equals(parts[1]), parse(parts[2], parts[3]), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR,
+                sort,
+                descending ? "desc" : "asc",
+                tag(value),
+                value == null ? "" : value.toString(),
+                Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean matches(String sort, boolean descending) {
+        return this.sort.equals(sort) && this.descending == descending;
+    }
+
+    /**
+     * Combina o filtro da busca com o predicado do keyset. Os parâmetros do keyset são
+     * numerados a partir de {@code filterParams.size() + 1}.
+     */
+    String where(String filter, List<Object> filterParams) {
+        String keyset = predicate(filterParams.size() + 1);
+        return filter == null ? keyset : "(" + filter + ") and (" + keyset + ")";
+    }
+
+    Object[] params(List<Object> filterParams) {
+        List<Object> all = new ArrayList<>(filterParams);
+        if (!"id".equals(sort) && value != null) {
+            all.add(value);
+        }
+        all.add(id);
+        return all.toArray();
+    }
+
+    private String predicate(int index) {
+        String op = descending ? "<" : ">";
+        if ("id".equals(sort)) {
+            return "id " + op + " ?" + index;
+        }
+        if (value == null) {
+            String idParam = "?" + index;
+            return descending
+                    ? sort + " is null and id < " + idParam
+                    : "(" + sort + " is null and id > " + idParam + ") or " + sort + " is not null";
+        }
+        String valueParam = "?" + index;
+        String idParam = "?" + (index + 1);
+        String predicate = sort + " " + op + " " + valueParam + " or (" + sort + " = " + valueParam + " and id " + op + " " + idParam + ")";
+        return descending ? predicate + " or " + sort + " is null" : predicate;
+    }
+
+    private static String getter(String field) {
+        return "get" + Character.toUpperCase(field.charAt(0)) + field.substring(1);
+    }
+
+    private static String tag(Object value) {
+        if (value == null) return "N";
+        if (value instanceof Integer) return "I";
+        if (value instanceof Long) return "L";
+        if (value instanceof Double) return "D";
+        if (value instanceof LocalDate) return "T";
+        return "S";
+    }
+
+    private static Object parse(String tag, String raw) {
+        return switch (tag) {
+            case "N" -> null;
+            case "I" -> Integer.valueOf(raw);
+            case "L" -> Long.valueOf(raw);
+            case "D" -> Double.valueOf(raw);
+            case "T" -> LocalDate.parse(raw);
+            case "S" -> raw;
+            default -> throw new IllegalArgumentException("Tipo de cursor desconhecido: " + tag);
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package org.acme;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Base das respostas de busca paginadas. O NextPage é um link absoluto montado sobre a URI da
+ * requisição e por isso não é guardado no {@link SearchResponseCache}: a busca informa só o
+ * parâmetro que leva à próxima página e o link é montado a cada resposta.
+ */
+public abstract class PagedResponse {
+
+    // null na última página
+    @JsonIgnore
+    public NextPageParam Next;
+
+    public record NextPageParam(String name, String value) {}
+}
@@ -0,0 +1,80 @@
+package org.acme;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+@Path("/admin/queries")
+@Produces(MediaType.APPLICATION_JSON)
+public class QueryStatsResource {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @GET
+    @Operation(
+            summary = "Retorna as consultas mais custosas (query stats)",
+            description = "Lista as N consultas HQL com maior tempo total ou maior tempo máximo de execução, a partir das estatísticas do Hibernate"
+    )
+    @APIResponse(
+            responseCode = "200",
+            description = "Estatísticas retornadas com sucesso",
+            content = @Content(
+                    schema = @Schema(implementation = QueryStatsResponse.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "400",
+            description = "Parâmetros inválidos"
+    )
+    public Response getStats(
+            @Parameter(description = "Quantidade de consultas retornadas")
+            @QueryParam("top") @DefaultValue("10") int top,
+            @Parameter(description = "Ordenação da lista: \"total\" pelo tempo total ou \"max\" pelo maior tempo de uma execução")
+            @QueryParam("sort") @DefaultValue("total") String sort){
+        if(top < 1 || !("total".equals(sort) || "max".equals(sort))){
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Use top maior que zero e sort igual a total ou max").build();
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        Comparator<QueryStatsResponse.Query> order = "max".equals(sort)
+                ? Comparator.comparingLong(query -> query.MaxTimeMs)
+                : Comparator.comparingLong(query -> query.TotalTimeMs);
+        order = order.thenComparingLong(query -> query.Executions);
+
+        var response = new QueryStatsResponse();
+        response.TotalQueries = statistics.getQueries().length;
+        response.Queries = Arrays.stream(statistics.getQueries())
+                .map(hql -> {
+                    QueryStatistics queryStatistics = statistics.getQueryStatistics(hql);
+                    var query = new QueryStatsResponse.Query();
+                    query.Query = hql;
+                    query.Executions = queryStatistics.getExecutionCount();
+                    query.Rows = queryStatistics.getExecutionRowCount();
+                    query.TotalTimeMs = queryStatistics.getExecutionTotalTime();
+                    query.MaxTimeMs = queryStatistics.getExecutionMaxTime();
+                    query.AvgTimeMs = queryStatistics.getExecutionAvgTimeAsDouble();
+                    return query;
+                })
+                .sorted(order.reversed())
+                .limit(top)
+                .toList();
+        return Response.ok(response).build();
+    }
+}
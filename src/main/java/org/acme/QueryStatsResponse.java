@@ -0,0 +1,18 @@
+package org.acme;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QueryStatsResponse {
+    public long TotalQueries;
+    public List<Query> Queries = new ArrayList<>();
+
+    public static class Query {
+        public String Query;
+        public long Executions;
+        public long Rows;
+        public long TotalTimeMs;
+        public long MaxTimeMs;
+        public double AvgTimeMs;
+    }
+}
@@ -0,0 +1,65 @@
+package org.acme;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resumo dos acessórios de um carro, atualizado pelo {@link ResumoCarroWriter} a cada escrita
+ * de acessório. Carros sem acessórios podem não ter linha; nesse caso o resumo é zerado.
+ */
+@Entity
+@Schema(readOnly = true)
+public class ResumoCarro extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "carro_id")
+    @Schema(examples = "1")
+    public Long carroId;
+
+    @Schema(examples = "3")
+    public long quantidadeAcessorios;
+
+    @Schema(examples = "4850.0")
+    public double valorTotal;
+
+    @Schema(examples = "240")
+    public long tempoInstalacaoTotal;
+
+    @ElementCollection
+    @CollectionTable(name = "resumo_carro_fabricante", joinColumns = @JoinColumn(name = "carro_id"))
+    @Column(name = "nome")
+    @OrderBy
+    @Schema(examples = "[\"BOSCH\", \"Pioneer\"]")
+    public Set<String> fabricantes = new LinkedHashSet<>();
+
+    public ResumoCarro() {}
+
+    public ResumoCarro(Long carroId) {
+        this.carroId = carroId;
+    }
+
+    /**
+     * Resumos dos carros informados, já com os fabricantes, em uma única consulta.
+     * Carros sem linha recebem um resumo zerado.
+     */
+    public static Map<Long, ResumoCarro> porCarro(Collection<Long> carroIds) {
+        Map<Long, ResumoCarro> resumos = new HashMap<>();
+        if (carroIds.isEmpty()) {
+            return resumos;
+        }
+        ResumoCarro.<ResumoCarro>find("select distinct r from ResumoCarro r left join fetch r.fabricantes where r.carroId in ?1", carroIds)
+                .list()
+                .forEach(resumo -> resumos.put(resumo.carroId, resumo));
+        for (Long id : carroIds) {
+            resumos.computeIfAbsent(id, ResumoCarro::new);
+        }
+        return resumos;
+    }
+}
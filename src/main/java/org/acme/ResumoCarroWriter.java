@@ -0,0 +1,83 @@
+package org.acme;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém o {@link ResumoCarro} dos carros afetados por uma escrita de acessório, recalculado
+ * na mesma transação da escrita com duas consultas agrupadas para todos os carros do lote.
+ */
+@ApplicationScoped
+public class ResumoCarroWriter {
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void refresh(Long... carroIds) {
+        refresh(Arrays.asList(carroIds));
+    }
+
+    /**
+     * As linhas dos carros são bloqueadas antes do cálculo, em ordem de id, para que duas
+     * transações que alteram acessórios do mesmo carro não gravem cada uma um resumo sem os
+     * acessórios da outra. Ids nulos ou de carros inexistentes são ignorados.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void refresh(Collection<Long> carroIds) {
+        Set<Long> ids = carroIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(TreeSet::new));
+        if (ids.isEmpty()) {
+            return;
+        }
+        EntityManager em = ResumoCarro.getEntityManager();
+
+        List<?> bloqueados = em.createNativeQuery("select id from Carro where id in (:ids) order by id for update")
+                .setParameter("ids", ids)
+                .getResultList();
+        Set<Long> existentes = bloqueados.stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toSet());
+        if (existentes.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Object[]> totais = new HashMap<>();
+        em.createQuery("select a.carro.id, count(a), sum(a.valor), sum(a.tempoInstalacaoMinutos) from Acessorio a"
+                        + " where a.carro.id in ?1 group by a.carro.id", Object[].class)
+                .setParameter(1, existentes)
+                .getResultList()
+                .forEach(row -> totais.put((Long) row[0], row));
+
+        Map<Long, Set<String>> fabricantes = new HashMap<>();
+        em.createQuery("select distinct a.carro.id, f.nome from Acessorio a join a.fabricantes f where a.carro.id in ?1", Object[].class)
+                .setParameter(1, existentes)
+                .getResultList()
+                .forEach(row -> fabricantes.computeIfAbsent((Long) row[0], id -> new TreeSet<>()).add((String) row[1]));
+
+        Map<Long, ResumoCarro> resumos = ResumoCarro.porCarro(existentes);
+        for (Long id : existentes) {
+            ResumoCarro resumo = resumos.get(id);
+            Object[] total = totais.get(id);
+            resumo.quantidadeAcessorios = total != null ? (Long) total[1] : 0;
+            resumo.valorTotal = total != null ? (Double) total[2] : 0;
+            resumo.tempoInstalacaoTotal = total != null ? ((Number) total[3]).longValue() : 0;
+
+            Set<String> nomes = fabricantes.getOrDefault(id, Set.of());
+            if (!resumo.fabricantes.equals(nomes)) {
+                resumo.fabricantes.clear();
+                resumo.fabricantes.addAll(nomes);
+            }
+            if (!resumo.isPersistent()) {
+                resumo.persist();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.acme;
+
+import io.quarkus.runtime.LaunchMode;
+import io.smallrye.config.ConfigSourceInterceptor;
+import io.smallrye.config.ConfigSourceInterceptorContext;
+import io.smallrye.config.ConfigValue;
+import io.smallrye.config.Priorities;
+import jakarta.annotation.Priority;
+
+import java.util.Set;
+
+/**
+ * Recusa configurações que apagam o banco fora dos modos dev e test: estratégias destrutivas de
+ * geração de esquema do Hibernate e o clean-at-start do Liquibase. A verificação é feita na leitura
+ * da configuração porque ambos agem antes do {@code StartupEvent}.
+ */
+@Priority(Priorities.APPLICATION)
+public class SchemaGenerationGuard implements ConfigSourceInterceptor {
+
+    static final String GENERATION = "quarkus.hibernate-orm.database.generation";
+    static final String LIQUIBASE_CLEAN = "quarkus.liquibase.clean-at-start";
+
+    // "create" também apaga o esquema existente antes de recriá-lo
+    private static final Set<String> DESTRUCTIVE = Set.of("drop-and-create", "drop", "create");
+
+    @Override
+    public ConfigValue getValue(ConfigSourceInterceptorContext context, String name) {
+        ConfigValue value = context.proceed(name);
+        if (value == null || value.getValue() == null || LaunchMode.current().isDevOrTest()) {
+            return value;
+        }
+        String setting = value.getValue().trim().toLowerCase();
+        if ((GENERATION.equals(name) && DESTRUCTIVE.contains(setting))
+                || (LIQUIBASE_CLEAN.equals(name) && "true".equals(setting))) {
+            throw new IllegalStateException(name + "=" + value.getValue()
+                    + " apagaria o banco de dados; permitido apenas nos perfis dev e test");
+        }
+        return value;
+    }
+}
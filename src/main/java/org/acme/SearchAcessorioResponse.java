@@ -1,13 +1,21 @@
 package org.acme;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
 import java.util.ArrayList;
 import java.util.List;
 
-public class SearchAcessorioResponse {
-    public List<Acessorio> Acessorios = new ArrayList<>();
+public class SearchAcessorioResponse extends PagedResponse {
+    @Schema(implementation = Acessorio.class, type = SchemaType.ARRAY)
+    public List<?> Acessorios = new ArrayList<>();
 
     public long TotalAcessorios;
     public int TotalPages;
     public boolean HasMore;
+    // montado por requisição pelo SearchResponseCache
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String NextPage;
+    public String NextCursor;
 }
\ No newline at end of file
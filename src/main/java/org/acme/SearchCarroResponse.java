@@ -1,13 +1,23 @@
 package org.acme;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-public class SearchCarroResponse {
-    public List<Carro> Carros = new ArrayList<>();
+public class SearchCarroResponse extends PagedResponse {
+    @Schema(implementation = Carro.class, type = SchemaType.ARRAY)
+    public List<?> Carros = new ArrayList<>();
 
     public long TotalCarros;
     public int TotalPages;
     public boolean HasMore;
+    // montado por requisição pelo SearchResponseCache
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String NextPage;
+    public String NextCursor;
+    public Map<Long, ResumoCarro> Resumos;
 }
\ No newline at end of file
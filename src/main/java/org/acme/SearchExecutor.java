@@ -0,0 +1,160 @@
+package org.acme;
+
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.TypedQuery;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Executa as buscas paginadas com no máximo uma consulta extra: a página é lida com
+ * um item a mais para decidir {@code HasMore} e o total vem de um único COUNT, guardado
+ * por um curto período para a mesma combinação de entidade e filtro.
+ */
+@ApplicationScoped
+public class SearchExecutor {
+
+    @ConfigProperty(name = "search.total-cache.ttl", defaultValue = "5S")
+    Duration ttl;
+
+    @ConfigProperty(name = "search.total-cache.max-entries", defaultValue = "1000")
+    int maxEntries;
+
+    @Inject
+    SearchResponseCache responseCache;
+
+    private final ConcurrentHashMap<String, CachedTotal> totals = new ConcurrentHashMap<>();
+
+    /**
+     * @param filter filtro HQL da busca, sem o predicado do keyset, ou {@code null}
+     * @param params parâmetros posicionais do filtro
+     * @param textTotal total da busca textual, ou {@code null} para contar com o filtro
+     * @param offset primeira linha da página; sempre 0 no modo cursor
+     * @param count  quando false o total não é calculado e retorna -1
+     * @param keyset indica que a consulta continua a partir de um cursor
+     */
+    public <T> SearchPage<T> execute(Class<?> type, PanacheQuery<T> query, String filter, List<Object> params,
+                                     Total textTotal, int offset, int size, boolean count, boolean keyset) {
+        List<T> rows = query.range(offset, offset + size).list();
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+
+        if (!count) {
+            return new SearchPage<>(items, -1, -1, hasMore);
+        }
+
+        long total;
+        if (!keyset && offset == 0 && !hasMore) {
+            total = items.size();
+        } else {
+            total = textTotal != null ? total(type, textTotal) : total(type, filter, params);
+        }
+        int totalPages = size > 0 ? (int) Math.ceil((double) total / size) : 0;
+        return new SearchPage<>(items, total, totalPages, hasMore);
+    }
+
+    /**
+     * Quantidade de ids que o índice textual precisa retornar para uma página por relevância:
+     * as páginas anteriores, a página e um item a mais para decidir {@code HasMore}.
+     */
+    public static int rankedWindow(int offset, int size) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) offset + size + 1);
+    }
+
+    /**
+     * Página ordenada por relevância: os ids já vêm do índice textual em ordem de score,
+     * então só a fatia da página é carregada e reordenada conforme o ranking.
+     *
+     * @param window os {@link #rankedWindow(int, int)} primeiros ids em ordem de relevância
+     * @param loader carrega as entidades de uma fatia de ids, em qualquer ordem
+     */
+    public <T> SearchPage<T> ranked(Class<?> type, List<Long> window, Function<List<Long>, List<T>> loader,
+                                    Function<T, Long> idOf, Total textTotal, int offset, int size, boolean count) {
+        int from = Math.min(offset, window.size());
+        int to = Math.min(from + size, window.size());
+        List<Long> slice = window.subList(from, to);
+
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < slice.size(); i++) {
+            position.put(slice.get(i), i);
+        }
+        List<T> items = slice.isEmpty() ? new ArrayList<>() : new ArrayList<>(loader.apply(slice));
+        items.sort(Comparator.comparing(item -> position.get(idOf.apply(item))));
+
+        boolean hasMore = to < window.size();
+        if (!count) {
+            return new SearchPage<>(items, -1, -1, hasMore);
+        }
+        long total = offset == 0 && !hasMore ? items.size() : total(type, textTotal);
+        int totalPages = size > 0 ? (int) Math.ceil((double) total / size) : 0;
+        return new SearchPage<>(items, total, totalPages, hasMore);
+    }
+
+    /**
+     * Descarta os totais e as respostas guardadas das buscas que exibem a entidade.
+     */
+    public void invalidate(Class<?> type) {
+        responseCache.invalidate(type);
+        String prefix = type.getSimpleName() + "|";
+        totals.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private long total(Class<?> type, String filter, List<Object> params) {
+        String key = type.getSimpleName() + "|" + (filter == null ? "" : filter) + "|" + params;
+        return cachedTotal(key, () -> {
+            String hql = "select count(*) from " + type.getSimpleName() + (filter == null ? "" : " where " + filter);
+            TypedQuery<Long> countQuery = Panache.getEntityManager(type).createQuery(hql, Long.class);
+            for (int i = 0; i < params.size(); i++) {
+                countQuery.setParameter(i + 1, params.get(i));
+            }
+            return countQuery.getSingleResult();
+        });
+    }
+
+    private long total(Class<?> type, Total textTotal) {
+        return cachedTotal(type.getSimpleName() + "|text|" + textTotal.text(), textTotal.counter());
+    }
+
+    private long cachedTotal(String key, LongSupplier counter) {
+        long now = System.nanoTime();
+        CachedTotal cached = totals.get(key);
+        if (cached != null && cached.expiresAt - now > 0) {
+            return cached.total;
+        }
+
+        long total = counter.getAsLong();
+        if (totals.size() >= maxEntries) {
+            totals.values().removeIf(entry -> entry.expiresAt - now <= 0);
+            if (totals.size() >= maxEntries) {
+                totals.clear();
+            }
+        }
+        totals.put(key, new CachedTotal(total, now + ttl.toNanos()));
+        return total;
+    }
+
+    /**
+     * Total de uma busca textual, guardado pelo texto normalizado em vez dos ids da busca.
+     */
+    public record Total(String text, LongSupplier counter) {
+
+        public Total {
+            text = FullTextIndex.normalize(text);
+        }
+    }
+
+    public record SearchPage<T>(List<T> items, long total, int totalPages, boolean hasMore) {}
+
+    private record CachedTotal(long total, long expiresAt) {}
+}
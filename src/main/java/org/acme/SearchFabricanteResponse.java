@@ -1,13 +1,21 @@
 package org.acme;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
 import java.util.ArrayList;
 import java.util.List;
 
-public class SearchFabricanteResponse {
-    public List<Fabricante> Fabricantes = new ArrayList<>();
+public class SearchFabricanteResponse extends PagedResponse {
+    @Schema(implementation = Fabricante.class, type = SchemaType.ARRAY)
+    public List<?> Fabricantes = new ArrayList<>();
 
     public long TotalFabricantes;
     public int TotalPages;
     public boolean HasMore;
+    // montado por requisição pelo SearchResponseCache
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String NextPage;
+    public String NextCursor;
 }
\ No newline at end of file
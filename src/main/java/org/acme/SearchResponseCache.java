@@ -0,0 +1,183 @@
+package org.acme;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache das respostas de busca já serializadas em JSON. A chave combina os parâmetros
+ * normalizados com a geração das entidades exibidas na resposta; cada escrita incrementa a
+ * geração da entidade, de forma que as respostas antigas deixam de ser encontradas e saem
+ * pelo limite de peso ou pelo TTL.
+ */
+@ApplicationScoped
+public class SearchResponseCache {
+
+    // entidades cujos dados aparecem nas respostas de busca de cada tipo
+    private static final Map<Class<?>, List<Class<?>>> DEPENDENCIES = Map.of(
+            Carro.class, List.of(Carro.class, Acessorio.class, Fabricante.class),
+            Acessorio.class, List.of(Acessorio.class, Carro.class, Fabricante.class),
+            Fabricante.class, List.of(Fabricante.class)
+    );
+
+    private static final String SEPARATOR = "\u001F";
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    TransactionSynchronizationRegistry transactions;
+
+    @ConfigProperty(name = "search.response-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "search.response-cache.max-weight", defaultValue = "16M")
+    MemorySize maxWeight;
+
+    @ConfigProperty(name = "search.response-cache.max-entry-size", defaultValue = "256K")
+    MemorySize maxEntrySize;
+
+    @ConfigProperty(name = "search.response-cache.ttl", defaultValue = "60S")
+    Duration ttl;
+
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private Cache<Key, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.asLongValue())
+                .weigher((Key key, Entry entry) -> entry.json.length + key.params.length() * 2)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna a resposta guardada para os parâmetros ou executa a busca e guarda o resultado.
+     * Só respostas 200 são guardadas. A busca roda fora do cache (sem {@code Cache.get} com
+     * função de carga) para não prender a virtual thread em um lock durante a consulta. O
+     * NextPage é montado depois, sobre a URI desta requisição.
+     */
+    public Response get(Class<?> type, UriInfo uriInfo, Supplier<Response> search, Object... params) {
+        Key key = enabled ? new Key(type, generation(type), normalize(params)) : null;
+        Entry entry = key != null ? cache.getIfPresent(key) : null;
+        if (entry == null) {
+            Response response = search.get();
+            if (response.getStatus() != Response.Status.OK.getStatusCode()
+                    || !(response.getEntity() instanceof PagedResponse page)) {
+                return response;
+            }
+            entry = new Entry(json(page), page.Next);
+            if (key != null && entry.json.length <= maxEntrySize.asLongValue()) {
+                cache.put(key, entry);
+            }
+        }
+        return Response.ok(withNextPage(entry, uriInfo), MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+    /**
+     * Invalida as respostas que exibem a entidade. A geração é incrementada de imediato e de novo
+     * após o commit, para descartar respostas guardadas por buscas que leram os dados antigos
+     * enquanto a transação ainda estava aberta.
+     */
+    public void invalidate(Class<?> type) {
+        bump(type);
+        if (transactions.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {}
+
+                @Override
+                public void afterCompletion(int status) {
+                    bump(type);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long weight() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    // o JSON guardado não tem o NextPage, que entra como o primeiro campo do objeto
+    private byte[] withNextPage(Entry entry, UriInfo uriInfo) {
+        String nextPage = entry.next == null ? "" : uriInfo.getRequestUriBuilder()
+                .replaceQueryParam(entry.next.name(), entry.next.value())
+                .build().toString();
+        byte[] field = ("{\"NextPage\":" + new String(json(nextPage), StandardCharsets.UTF_8) + ",")
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[field.length + entry.json.length - 1];
+        System.arraycopy(field, 0, body, 0, field.length);
+        System.arraycopy(entry.json, 1, body, field.length, entry.json.length - 1);
+        return body;
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void bump(Class<?> type) {
+        generations.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+    }
+
+    // as gerações só crescem, então a soma muda sempre que uma das entidades é alterada
+    private long generation(Class<?> type) {
+        long generation = 0;
+        for (Class<?> dependency : DEPENDENCIES.getOrDefault(type, List.of(type))) {
+            AtomicLong counter = generations.get(dependency);
+            generation += counter != null ? counter.get() : 0;
+        }
+        return generation;
+    }
+
+    private static String normalize(Object... params) {
+        StringBuilder key = new StringBuilder();
+        for (Object param : params) {
+            if (param instanceof String text) {
+                param = text.trim();
+            }
+            key.append(param == null ? "" : param).append(SEPARATOR);
+        }
+        return key.toString();
+    }
+
+    private record Key(Class<?> type, long generation, String params) {}
+
+    private record Entry(byte[] json, PagedResponse.NextPageParam next) {}
+}
@@ -0,0 +1,68 @@
+package org.acme;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Driver JDBC do datasource (quarkus.datasource.jdbc.driver): delega ao driver do H2 e entrega as
+ * conexões envolvidas pelo {@link SlowQueryLog}, então todo comando que passa pelo pool é medido,
+ * seja do Hibernate, do Liquibase, do índice textual ou de JDBC direto.
+ */
+@RegisterForReflection
+public class SlowQueryDriver implements Driver {
+
+    private final Driver delegate = new org.h2.Driver();
+
+    private final long thresholdNanos = ConfigProvider.getConfig()
+            .getOptionalValue("slow-query.threshold", Duration.class)
+            .orElse(Duration.ofMillis(200))
+            .toNanos();
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        Connection connection = delegate.connect(url, info);
+        if (connection == null || thresholdNanos == 0) {
+            return connection;
+        }
+        return SlowQueryLog.wrap(connection, thresholdNanos);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) throws SQLException {
+        return delegate.acceptsURL(url);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return delegate.getPropertyInfo(url, info);
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return delegate.getMajorVersion();
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return delegate.getMinorVersion();
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return delegate.jdbcCompliant();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+}
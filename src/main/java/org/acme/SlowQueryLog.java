@@ -0,0 +1,137 @@
+package org.acme;
+
+import org.jboss.logging.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Registra os comandos SQL que passam do limite configurado, com os parâmetros e a quantidade
+ * de linhas alteradas. As conexões do datasource são envolvidas pelo {@link SlowQueryDriver};
+ * a categoria usa um handler assíncrono (ver application.properties), então a escrita do log
+ * não bloqueia a requisição.
+ */
+public final class SlowQueryLog {
+
+    private static final Logger LOG = Logger.getLogger(SlowQueryLog.class);
+
+    private static final Set<String> EXECUTE = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private SlowQueryLog() {}
+
+    static Connection wrap(Connection connection, long thresholdNanos) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = call(connection, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement, new StatementHandler(statement, sql, thresholdNanos));
+            } else if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement, new StatementHandler(statement, sql, thresholdNanos));
+            } else if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, new StatementHandler(statement, null, thresholdNanos));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @param sql    comando executado
+     * @param params parâmetros na ordem dos {@code ?}
+     * @param rows   linhas alteradas, ou -1 quando o comando é uma consulta
+     * @param nanos  tempo de execução
+     */
+    static void record(String sql, Object params, long rows, long nanos) {
+        if (rows < 0) {
+            LOG.warnf("Consulta lenta (%d ms): %s; parâmetros=%s", nanos / 1_000_000, sql, params);
+        } else {
+            LOG.warnf("Consulta lenta (%d ms, %d linha(s)): %s; parâmetros=%s", nanos / 1_000_000, rows, sql, params);
+        }
+    }
+
+    // mede os execute* e guarda os parâmetros definidos desde o último clearParameters
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final long thresholdNanos;
+        private final TreeMap<Integer, Object> params = new TreeMap<>();
+        private int batch;
+
+        StatementHandler(Statement target, String sql, long thresholdNanos) {
+            this.target = target;
+            this.sql = sql;
+            this.thresholdNanos = thresholdNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                params.put(index, "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                params.clear();
+            } else if ("addBatch".equals(name)) {
+                batch++;
+            } else if ("clearBatch".equals(name)) {
+                batch = 0;
+            }
+            if (!EXECUTE.contains(name)) {
+                return call(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result = call(target, method, args);
+            long nanos = System.nanoTime() - start;
+            if (nanos >= thresholdNanos) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                record(executed + (batch > 0 ? " (lote de " + batch + ")" : ""), new ArrayList<>(params.values()),
+                        rows(result), nanos);
+            }
+            if (name.endsWith("Batch")) {
+                batch = 0;
+            }
+            return result;
+        }
+
+        private long rows(Object result) {
+            if (result instanceof Number count) {
+                return count.longValue();
+            } else if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            } else if (result instanceof long[] counts) {
+                long total = 0;
+                for (long count : counts) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            }
+            return -1;
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.acme;
+
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Projeção das listagens pelo parâmetro {@code fields}: apenas as colunas pedidas entram no
+ * SELECT, sem carregar entidades nem as associações dos entity graphs. Cada linha é retornada
+ * como um mapa de campo para valor.
+ */
+final class SparseFields {
+
+    // campo exposto -> caminho HQL; os ids das associações vêm da própria chave estrangeira
+    static final Map<String, String> CARRO = Map.of(
+            "id", "id",
+            "versao", "versao",
+            "modelo", "modelo",
+            "nomeCompletoVersao", "nomeCompletoVersao",
+            "dataDeFabricacao", "dataDeFabricacao",
+            "paisDeMontagem", "paisDeMontagem",
+            "fichaTecnicaId", "fichaTecnica.id"
+    );
+
+    static final Map<String, String> ACESSORIO = Map.of(
+            "id", "id",
+            "versao", "versao",
+            "nome", "nome",
+            "descricao", "descricao",
+            "anoAquisicao", "anoAquisicao",
+            "valor", "valor",
+            "tempoInstalacaoMinutos", "tempoInstalacaoMinutos",
+            "carroId", "carro.id"
+    );
+
+    static final Map<String, String> FABRICANTE = Map.of(
+            "id", "id",
+            "versao", "versao",
+            "nome", "nome",
+            "detalhes", "detalhes"
+    );
+
+    private final Map<String, String> available;
+    private final Map<String, String> selected = new LinkedHashMap<>();
+    private final List<String> unknown = new ArrayList<>();
+
+    private SparseFields(Map<String, String> available) {
+        this.available = available;
+    }
+
+    /**
+     * Retorna {@code null} quando {@code fields} não foi informado, indicando a entidade completa.
+     */
+    static SparseFields parse(String fields, Map<String, String> available) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        SparseFields sparse = new SparseFields(available);
+        for (String field : fields.split(",")) {
+            field = field.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (available.containsKey(field)) {
+                sparse.selected.put(field, available.get(field));
+            } else if (!sparse.unknown.contains(field)) {
+                sparse.unknown.add(field);
+            }
+        }
+        return sparse;
+    }
+
+    boolean isValid() {
+        return unknown.isEmpty();
+    }
+
+    String error() {
+        return (unknown.size() == 1 ? "Campo inexistente em fields: " : "Campos inexistentes em fields: ")
+                + String.join(", ", unknown)
+                + ". Disponíveis: " + available.keySet().stream().sorted().collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Inclui campos de que a paginação depende, como o id e o campo de ordenação usados no cursor.
+     */
+    SparseFields require(String... fields) {
+        for (String field : fields) {
+            if (available.containsKey(field)) {
+                selected.putIfAbsent(field, available.get(field));
+            }
+        }
+        return this;
+    }
+
+    String names() {
+        return String.join(",", selected.keySet());
+    }
+
+    String hql(Class<?> type, String filter) {
+        String columns = selected.entrySet().stream()
+                .map(field -> field.getValue() + " as " + field.getKey())
+                .collect(Collectors.joining(", "));
+        return "select new map(" + columns + ") from " + type.getSimpleName()
+                + (filter == null ? "" : " where " + filter);
+    }
+
+    /**
+     * As consultas do Panache são tipadas pela entidade; com {@code select new map} as linhas são mapas.
+     */
+    @SuppressWarnings("unchecked")
+    static PanacheQuery<Map<String, Object>> rows(PanacheQuery<?> query) {
+        return (PanacheQuery<Map<String, Object>>) query;
+    }
+
+    static Long id(Map<String, Object> row) {
+        return (Long) row.get("id");
+    }
+}
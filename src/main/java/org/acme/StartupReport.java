@@ -0,0 +1,33 @@
+package org.acme;
+
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registra o tempo de inicialização medido desde a partida da JVM, depois dos demais
+ * observadores de inicialização (migrações, índices textuais, massa de dados). Com
+ * {@code startup.exit-after-boot} a aplicação encerra logo em seguida; é o que os builds usam
+ * para medir o tempo de inicialização e para gerar o arquivo de AppCDS e o snapshot do banco.
+ */
+@ApplicationScoped
+public class StartupReport {
+
+    private static final Logger LOG = Logger.getLogger(StartupReport.class);
+
+    @ConfigProperty(name = "startup.exit-after-boot", defaultValue = "false")
+    boolean exitAfterBoot;
+
+    void onStart(@Observes @Priority(Integer.MAX_VALUE) StartupEvent event) {
+        LOG.infof("Inicialização concluída em %d ms", ManagementFactory.getRuntimeMXBean().getUptime());
+        if (exitAfterBoot) {
+            Quarkus.asyncExit();
+        }
+    }
+}
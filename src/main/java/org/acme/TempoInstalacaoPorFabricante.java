@@ -0,0 +1,15 @@
+package org.acme;
+
+public class TempoInstalacaoPorFabricante {
+    public Long FabricanteId;
+    public String Nome;
+    public long QuantidadeAcessorios;
+    public long TempoInstalacaoMinutos;
+
+    public TempoInstalacaoPorFabricante(Long fabricanteId, String nome, Long quantidadeAcessorios, Long tempoInstalacaoMinutos) {
+        this.FabricanteId = fabricanteId;
+        this.Nome = nome;
+        this.QuantidadeAcessorios = quantidadeAcessorios;
+        this.TempoInstalacaoMinutos = tempoInstalacaoMinutos;
+    }
+}
@@ -0,0 +1,17 @@
+package org.acme;
+
+public class ValorAcessoriosPorCarro {
+    public Long CarroId;
+    public String Modelo;
+    public long QuantidadeAcessorios;
+    public double ValorTotal;
+    public double ValorMedio;
+
+    public ValorAcessoriosPorCarro(Long carroId, String modelo, Long quantidadeAcessorios, Double valorTotal, Double valorMedio) {
+        this.CarroId = carroId;
+        this.Modelo = modelo;
+        this.QuantidadeAcessorios = quantidadeAcessorios;
+        this.ValorTotal = valorTotal;
+        this.ValorMedio = valorMedio;
+    }
+}
@@ -0,0 +1,54 @@
+--liquibase formatted sql
+
+--changeset api-carros:1
+--comment: Tabelas e sequências das entidades. As sequências usam o mesmo incremento do allocationSize (50). As chaves estrangeiras ficam em 002, depois dos índices.
+create sequence acessorio_seq start with 1 increment by 50;
+create sequence carro_seq start with 1 increment by 50;
+create sequence fabricante_seq start with 1 increment by 50;
+create sequence ficha_tecnica_seq start with 1 increment by 50;
+
+create table FichaTecnica (
+    id bigint not null,
+    versao bigint default 0 not null,
+    detalhesDoMotor varchar(2000),
+    tipoDeCombustivel varchar(200),
+    opcionaisDeFabrica varchar(255),
+    primary key (id)
+);
+
+create table Carro (
+    id bigint not null,
+    versao bigint default 0 not null,
+    modelo varchar(100) not null,
+    nomeCompletoVersao varchar(255),
+    dataDeFabricacao date,
+    paisDeMontagem varchar(80) not null,
+    ficha_tecnica_id bigint unique,
+    primary key (id)
+);
+
+create table Fabricante (
+    id bigint not null,
+    versao bigint default 0 not null,
+    nome varchar(50) not null,
+    detalhes varchar(200),
+    primary key (id)
+);
+
+create table Acessorio (
+    id bigint not null,
+    versao bigint default 0 not null,
+    nome varchar(200) not null,
+    descricao varchar(2000) not null,
+    anoAquisicao integer not null check (anoAquisicao >= 1900),
+    valor float(53) not null,
+    tempoInstalacaoMinutos integer not null check (tempoInstalacaoMinutos >= 0),
+    carro_id bigint,
+    primary key (id)
+);
+
+create table acessorio_fabricante (
+    acessorio_id bigint not null,
+    fabricante_id bigint not null,
+    primary key (acessorio_id, fabricante_id)
+);
@@ -0,0 +1,19 @@
+--liquibase formatted sql
+
+--changeset api-carros:2
+--comment: Índices das chaves estrangeiras, das ordenações das buscas e dos filtros numéricos. As chaves estrangeiras são criadas depois dos índices para que o H2 os reutilize em vez de criar índices próprios.
+-- verificação de acessórios antes de excluir um carro e carga dos acessórios por carro
+create index idx_acessorio_carro on Acessorio (carro_id);
+-- acessórios de um fabricante (a chave primária da tabela de junção começa por acessorio_id)
+create index idx_acessorio_fabricante_fabricante on acessorio_fabricante (fabricante_id, acessorio_id);
+-- ordenação e paginação por keyset de /carros/search (campo ordenado + id de desempate)
+create index idx_carro_modelo on Carro (modelo, id);
+create index idx_carro_pais_de_montagem on Carro (paisDeMontagem, id);
+-- busca numérica de /acessorios/search
+create index idx_acessorio_ano_aquisicao on Acessorio (anoAquisicao);
+create index idx_acessorio_tempo_instalacao on Acessorio (tempoInstalacaoMinutos);
+
+alter table Carro add constraint fk_carro_ficha_tecnica foreign key (ficha_tecnica_id) references FichaTecnica;
+alter table Acessorio add constraint fk_acessorio_carro foreign key (carro_id) references Carro;
+alter table acessorio_fabricante add constraint fk_acessorio_fabricante_acessorio foreign key (acessorio_id) references Acessorio;
+alter table acessorio_fabricante add constraint fk_acessorio_fabricante_fabricante foreign key (fabricante_id) references Fabricante;
@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+--changeset api-carros:4
+--comment: Resumo dos acessórios por carro (quantidade, valor e tempo de instalação totais e fabricantes distintos), mantido pela aplicação a cada escrita de acessório. Preenchido aqui a partir dos dados existentes.
+create table ResumoCarro (
+    carro_id bigint not null,
+    quantidadeAcessorios bigint not null,
+    valorTotal float(53) not null,
+    tempoInstalacaoTotal bigint not null,
+    primary key (carro_id)
+);
+
+create table resumo_carro_fabricante (
+    carro_id bigint not null,
+    nome varchar(50) not null,
+    primary key (carro_id, nome)
+);
+
+alter table ResumoCarro add constraint fk_resumo_carro_carro foreign key (carro_id) references Carro on delete cascade;
+alter table resumo_carro_fabricante add constraint fk_resumo_carro_fabricante_resumo foreign key (carro_id) references ResumoCarro on delete cascade;
+
+insert into ResumoCarro (carro_id, quantidadeAcessorios, valorTotal, tempoInstalacaoTotal)
+select carro_id, count(*), sum(valor), sum(tempoInstalacaoMinutos)
+from Acessorio
+where carro_id is not null
+group by carro_id;
+
+insert into resumo_carro_fabricante (carro_id, nome)
+select distinct a.carro_id, f.nome
+from Acessorio a
+join acessorio_fabricante af on af.acessorio_id = a.id
+join Fabricante f on f.id = af.fabricante_id
+where a.carro_id is not null;
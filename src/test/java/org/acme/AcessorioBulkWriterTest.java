@@ -0,0 +1,200 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+/**
+ * Upsert em lote de acessórios (PUT /acessorios/bulk): inserções e alterações na mesma requisição,
+ * controle de versão, regravação dos vínculos com fabricantes e atualização dos resumos dos carros.
+ */
+@QuarkusTest
+class AcessorioBulkWriterTest {
+
+    private final List<Integer> criados = new ArrayList<>();
+
+    @AfterEach
+    void removerCriados() {
+        if (!criados.isEmpty()) {
+            given()
+              .contentType(ContentType.JSON)
+              .body(criados.toString())
+              .when().delete("/acessorios/bulk")
+              .then()
+                 .statusCode(200);
+            criados.clear();
+        }
+    }
+
+    @Test
+    void testUpsertInsereEAlteraNaMesmaRequisicao() {
+        int id = criar(1, 1, 2);
+        // carrega a coleção no cache de segundo nível antes de os vínculos serem regravados por SQL
+        given()
+          .when().get("/acessorios/" + id)
+          .then()
+             .statusCode(200)
+             .body("fabricantes.id", containsInAnyOrder(1, 2));
+
+        int novo = given()
+          .contentType(ContentType.JSON)
+          .body("[" + acessorio(id, 0, "Alterado", 3, 3) + "," + acessorio(null, 0, "Novo", 1, 4, 5) + "]")
+          .when().put("/acessorios/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(2))
+             .body("Failed", is(0))
+             .body("Results.Status", is(List.of("UPDATED", "CREATED")))
+             .body("Results[0].Id", is(id))
+             .body("Results[1].Id", notNullValue())
+             .extract().path("Results[1].Id");
+        criados.add(novo);
+
+        // o DELETE nativo e o INSERT em batch substituíram os vínculos e a coleção foi despejada do cache
+        given()
+          .when().get("/acessorios/" + id)
+          .then()
+             .statusCode(200)
+             .body("nome", is("Alterado"))
+             .body("carro.id", is(3))
+             .body("fabricantes.id", is(List.of(3)))
+             .body("versao", is(1));
+        given()
+          .when().get("/acessorios/" + novo)
+          .then()
+             .statusCode(200)
+             .body("carro.id", is(1))
+             .body("fabricantes.id", containsInAnyOrder(4, 5))
+             .body("versao", is(0));
+
+        // o carro de origem e o de destino do acessório alterado tiveram o resumo recalculado
+        given()
+          .when().get("/carros/1/resumo")
+          .then()
+             .statusCode(200)
+             .body("quantidadeAcessorios", is(1))
+             .body("valorTotal", is(100.0f))
+             .body("fabricantes", is(List.of("Alpine", "Garrett")));
+        given()
+          .when().get("/carros/3/resumo")
+          .then()
+             .statusCode(200)
+             .body("quantidadeAcessorios", is(2))
+             .body("valorTotal", is(1300.0f))
+             .body("fabricantes", is(List.of("BOSCH", "Michelin", "Recaro")));
+    }
+
+    @Test
+    void testVersaoDesatualizadaRetornaConflito() {
+        int id = criar(1, 1);
+        given()
+          .contentType(ContentType.JSON)
+          .body(acessorio(null, 0, "Alterado por outro cliente", 1, 2))
+          .when().put("/acessorios/" + id)
+          .then()
+             .statusCode(200)
+             .body("versao", is(1));
+
+        given()
+          .contentType(ContentType.JSON)
+          .body("[" + acessorio(id, 0, "Desatualizado", 3, 3) + "]")
+          .when().put("/acessorios/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(0))
+             .body("Failed", is(1))
+             .body("Results[0].Status", is("CONFLICT"))
+             .body("Results[0].Message", containsString("versão atual 1"));
+
+        // nada foi gravado: nem os campos, nem os vínculos, nem a versão
+        given()
+          .when().get("/acessorios/" + id)
+          .then()
+             .statusCode(200)
+             .body("nome", is("Alterado por outro cliente"))
+             .body("carro.id", is(1))
+             .body("fabricantes.id", is(List.of(2)))
+             .body("versao", is(1));
+
+        // com a versão atual a alteração é aceita e a versão é incrementada
+        given()
+          .contentType(ContentType.JSON)
+          .body("[" + acessorio(id, 1, "Atualizado", 3, 3) + "]")
+          .when().put("/acessorios/bulk")
+          .then()
+             .statusCode(200)
+             .body("Results[0].Status", is("UPDATED"));
+        given()
+          .when().get("/acessorios/" + id)
+          .then()
+             .statusCode(200)
+             .body("nome", is("Atualizado"))
+             .body("fabricantes.id", is(List.of(3)))
+             .body("versao", is(2));
+    }
+
+    @Test
+    void testAlteracaoSoDosVinculosIncrementaAVersao() {
+        int id = criar(1, 1, 2);
+        given()
+          .when().get("/acessorios/" + id)
+          .then()
+             .statusCode(200)
+             .body("fabricantes.id", containsInAnyOrder(1, 2));
+
+        // mesmos campos, outros fabricantes: a entidade não fica suja e o incremento é forçado
+        given()
+          .contentType(ContentType.JSON)
+          .body("[" + acessorio(id, 0, "Criado", 1, 6) + "]")
+          .when().put("/acessorios/bulk")
+          .then()
+             .statusCode(200)
+             .body("Results[0].Status", is("UPDATED"));
+
+        given()
+          .when().get("/acessorios/" + id)
+          .then()
+             .statusCode(200)
+             .body("fabricantes.id", is(List.of(6)))
+             .body("versao", is(1));
+        given()
+          .when().get("/carros/1/resumo")
+          .then()
+             .statusCode(200)
+             .body("fabricantes", is(List.of("Brembo")));
+    }
+
+    private int criar(long carroId, long... fabricanteIds) {
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body(acessorio(null, 0, "Criado", carroId, fabricanteIds))
+          .when().post("/acessorios")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+        criados.add(id);
+        return id;
+    }
+
+    private static String acessorio(Integer id, long versao, String nome, long carroId, long... fabricanteIds) {
+        String fabricantes = Arrays.stream(fabricanteIds)
+                .mapToObj(f -> "{\"id\":" + f + "}")
+                .collect(Collectors.joining(","));
+        return "{" + (id != null ? "\"id\":" + id + ",\"versao\":" + versao + "," : "")
+                + "\"nome\":\"" + nome + "\",\"descricao\":\"Teste do upsert em lote\",\"anoAquisicao\":2024,"
+                + "\"valor\":100.0,\"tempoInstalacaoMinutos\":10,\"carro\":{\"id\":" + carroId + "},"
+                + "\"fabricantes\":[" + fabricantes + "]}";
+    }
+}
@@ -0,0 +1,207 @@
+package org.acme;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Importação em lote de carros (POST /carros/bulk) com lotes de dois itens: cada lote é gravado
+ * na sua própria transação, à medida que o corpo da requisição é lido.
+ */
+@QuarkusTest
+@TestProfile(BulkImportTest.LotesDeDois.class)
+class BulkImportTest {
+
+    public static class LotesDeDois implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("bulk.chunk-size", "2");
+        }
+    }
+
+    private static final String PREFIXO = "Lote ";
+
+    @Inject
+    DataSource dataSource;
+
+    @TestHTTPResource("/carros/bulk")
+    URI bulkUri;
+
+    @AfterEach
+    void removerImportados() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement delete = connection.prepareStatement("delete from Carro where modelo like ?")) {
+            delete.setString(1, PREFIXO + "%");
+            delete.executeUpdate();
+        }
+    }
+
+    @Test
+    void testImportaEmVariosLotesEReportaItensInvalidos() throws SQLException {
+        String body = ndjson(carro("A"), carro("B"), "{\"modelo\":\"\",\"paisDeMontagem\":\"Brasil\"}",
+                carro("C"), carro("D"), carro("E"));
+
+        JsonPath result = given()
+          .contentType(EntityStreamer.NDJSON)
+          .body(body.getBytes(StandardCharsets.UTF_8))
+          .when().post("/carros/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(5))
+             .body("Failed", is(1))
+             .body("Results.size()", is(6))
+             .body("Results[2].Status", is("INVALID"))
+             .body("Results[2].Id", nullValue())
+             .body("Results[2].Message", is("O modelo deve ter entre 2 e 100 caracteres; O modelo do carro não pode ser vazio"))
+             .body("Results[5].Status", is("CREATED"))
+             .body("Results[5].Id", notNullValue())
+             .extract().jsonPath();
+
+        // o item inválido não ocupa lugar no lote: A+B, C+D e E (o resto, gravado ao fim da leitura)
+        assertEquals(List.of("A", "B", "C", "D", "E"), importados());
+        List<Long> ids = result.getList("Results.findAll { it.Status == 'CREATED' }.Id", Long.class);
+        assertEquals(5, ids.stream().distinct().count());
+    }
+
+    @Test
+    void testLoteComErroDoBancoNaoAfetaOsOutrosLotes() throws SQLException {
+        // nomeCompletoVersao é varchar(255) e não tem @Size: o erro só aparece ao gravar o lote
+        String longo = "x".repeat(300);
+        String body = "[" + String.join(",", carro("A"), carro("B"),
+                "{\"modelo\":\"Lote C\",\"nomeCompletoVersao\":\"" + longo + "\",\"paisDeMontagem\":\"Brasil\"}",
+                carro("D"), carro("E")) + "]";
+
+        given()
+          .contentType("application/json")
+          .body(body)
+          .when().post("/carros/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(3))
+             .body("Failed", is(2))
+             .body("Results.Status", is(List.of("CREATED", "CREATED", "FAILED", "FAILED", "CREATED")))
+             .body("Results[2].Message", startsWith("Lote não gravado"))
+             .body("Results[3].Message", startsWith("Lote não gravado"))
+             .body("Results[2].Id", nullValue())
+             .body("Results[3].Id", nullValue());
+
+        // o lote C+D foi revertido inteiro; o primeiro e o último foram gravados
+        assertEquals(List.of("A", "B", "E"), importados());
+    }
+
+    @Test
+    void testJsonMalFormadoInterrompeALeituraEGravaOQueJaFoiLido() throws SQLException {
+        String body = ndjson(carro("A"), carro("B"), carro("C"), "{\"modelo\":\"Lote X\",,}", carro("D"));
+
+        given()
+          .contentType(EntityStreamer.NDJSON)
+          .body(body.getBytes(StandardCharsets.UTF_8))
+          .when().post("/carros/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(3))
+             .body("Failed", is(1))
+             .body("Results.size()", is(4))
+             .body("Results.Status", is(List.of("CREATED", "CREATED", "CREATED", "INVALID")))
+             .body("Results[3].Index", is(3))
+             .body("Results[3].Message", startsWith("JSON inválido, leitura interrompida"));
+
+        // A+B foram gravados antes do erro; C estava no lote incompleto e é gravado ao fim; D não é lido
+        assertEquals(List.of("A", "B", "C"), importados());
+    }
+
+    @Test
+    void testLotesSaoGravadosEnquantoOCorpoAindaEstaSendoEnviado() throws Exception {
+        // o cliente só envia o resto do corpo depois que os dois primeiros lotes estão no banco;
+        // se o servidor lesse o corpo inteiro antes de gravar, a espera nunca terminaria
+        try (Socket socket = new Socket(bulkUri.getHost(), bulkUri.getPort())) {
+            socket.setSoTimeout(30_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST " + bulkUri.getPath() + " HTTP/1.1\r\n"
+                    + "Host: " + bulkUri.getHost() + ":" + bulkUri.getPort() + "\r\n"
+                    + "Content-Type: " + EntityStreamer.NDJSON + "\r\n"
+                    + "Transfer-Encoding: chunked\r\n"
+                    + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            enviarParte(out, ndjson(carro("A"), carro("B"), carro("C"), carro("D")));
+
+            aguardarImportados(4);
+            enviarParte(out, ndjson(carro("E"), carro("F")));
+            out.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(response.startsWith("HTTP/1.1 200"), response);
+            assertTrue(response.contains("\"Succeeded\":6"), response);
+        }
+        assertEquals(List.of("A", "B", "C", "D", "E", "F"), importados());
+    }
+
+    private static void enviarParte(OutputStream out, String parte) throws IOException {
+        byte[] bytes = parte.getBytes(StandardCharsets.UTF_8);
+        out.write((Integer.toHexString(bytes.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private void aguardarImportados(int esperados) throws SQLException, InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (importados().size() < esperados) {
+            if (System.nanoTime() > limite) {
+                throw new AssertionError("Os lotes não foram gravados enquanto o corpo era enviado: " + importados());
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private List<String> importados() throws SQLException {
+        List<String> modelos = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(
+                     "select modelo from Carro where modelo like ? order by modelo")) {
+            select.setString(1, PREFIXO + "%");
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    modelos.add(rs.getString(1).substring(PREFIXO.length()));
+                }
+            }
+        }
+        return modelos;
+    }
+
+    private static String ndjson(String... linhas) {
+        return String.join("\n", linhas) + "\n";
+    }
+
+    private static String carro(String modelo) {
+        return "{\"modelo\":\"" + PREFIXO + modelo + "\",\"paisDeMontagem\":\"Brasil\"}";
+    }
+}
@@ -0,0 +1,135 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class DeleteTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void testDeleteCarroUsesConstantStatements() {
+        int id = criarCarro();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        given()
+          .when().delete("/carros/" + id)
+          .then()
+             .statusCode(204);
+
+        // consulta com EXISTS + DELETE do carro + DELETE da ficha técnica
+        long executed = statistics.getPrepareStatementCount();
+        assertTrue(executed <= 3, "Esperado no máximo 3 comandos SQL, executados " + executed);
+
+        given()
+          .when().get("/carros/" + id)
+          .then()
+             .statusCode(404);
+    }
+
+    @Test
+    void testDeleteCarroComAcessoriosRetornaConflito() {
+        given()
+          .when().delete("/carros/2")
+          .then()
+             .statusCode(409)
+             .body(containsString("Existem 2 acessório(s)"));
+    }
+
+    @Test
+    void testBulkDeleteCarros() {
+        int primeiro = criarCarro();
+        int segundo = criarCarro();
+
+        given()
+          .contentType(ContentType.JSON)
+          .body("[" + primeiro + ", 2, 999, " + segundo + "]")
+          .when().delete("/carros/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(2))
+             .body("Failed", is(2))
+             .body("Results[0].Status", is("DELETED"))
+             .body("Results[1].Status", is("CONFLICT"))
+             .body("Results[2].Status", is("NOT_FOUND"))
+             .body("Results[3].Status", is("DELETED"));
+
+        given().when().get("/carros/" + segundo).then().statusCode(404);
+        given().when().get("/carros/2").then().statusCode(200);
+    }
+
+    @Test
+    void testDeleteFabricantes() {
+        given()
+          .when().delete("/fabricantes/2")
+          .then()
+             .statusCode(409)
+             .body(containsString("Existem 3 acessório(s)"));
+
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body("{\"nome\":\"Pirelli\",\"detalhes\":\"Pneus\"}")
+          .when().post("/fabricantes")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+
+        given()
+          .contentType(ContentType.JSON)
+          .body("[" + id + ", 2]")
+          .when().delete("/fabricantes/bulk")
+          .then()
+             .statusCode(200)
+             .body("Results[0].Status", is("DELETED"))
+             .body("Results[1].Status", is("CONFLICT"));
+
+        given()
+          .when().delete("/fabricantes/" + id)
+          .then()
+             .statusCode(404);
+    }
+
+    @Test
+    void testDeleteAcessorioAtualizaResumo() {
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body("{\"nome\":\"Engate\",\"descricao\":\"Engate removível\",\"anoAquisicao\":2024,\"valor\":50.0,"
+                  + "\"tempoInstalacaoMinutos\":30,\"carro\":{\"id\":4},\"fabricantes\":[{\"id\":1}]}")
+          .when().post("/acessorios")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+
+        given().when().delete("/acessorios/" + id).then().statusCode(204);
+        given().when().delete("/acessorios/" + id).then().statusCode(404);
+
+        given()
+          .when().get("/carros/4/resumo")
+          .then()
+             .statusCode(200)
+             .body("quantidadeAcessorios", is(1));
+    }
+
+    private static int criarCarro() {
+        return given()
+          .contentType(ContentType.JSON)
+          .body("{\"modelo\":\"Kwid\",\"nomeCompletoVersao\":\"Renault Kwid Zen\",\"paisDeMontagem\":\"Brasil\","
+                  + "\"fichaTecnica\":{\"detalhesDoMotor\":\"1.0 12V\"}}")
+          .when().post("/carros")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+    }
+}
@@ -0,0 +1,182 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * GET condicional (If-None-Match) e PUT condicional (If-Match) nos três recursos, e a ETag
+ * combinada do acessório, que muda quando o carro, a ficha técnica ou um fabricante vinculado muda.
+ */
+@QuarkusTest
+class ETagTest {
+
+    private int carroId;
+    private int fabricanteId;
+    private int acessorioId;
+
+    @BeforeEach
+    void criarRegistros() {
+        carroId = criar("/carros", carro("Opala", "250-S"));
+        fabricanteId = criar("/fabricantes", fabricante("Bosch Automotive"));
+        acessorioId = criar("/acessorios", acessorio("Ignição eletrônica"));
+    }
+
+    @AfterEach
+    void removerRegistros() {
+        given().when().delete("/acessorios/" + acessorioId).then().statusCode(204);
+        given().when().delete("/carros/" + carroId).then().statusCode(204);
+        given().when().delete("/fabricantes/" + fabricanteId).then().statusCode(204);
+    }
+
+    @Test
+    void testCarro() {
+        assertConditionalRequests("/carros/" + carroId, carro("Opala SS", "250-S 4.1"), "modelo", "Opala SS");
+    }
+
+    @Test
+    void testFabricante() {
+        assertConditionalRequests("/fabricantes/" + fabricanteId, fabricante("Bosch"), "nome", "Bosch");
+    }
+
+    @Test
+    void testAcessorio() {
+        assertConditionalRequests("/acessorios/" + acessorioId, acessorio("Ignição eletrônica Pro"), "nome", "Ignição eletrônica Pro");
+    }
+
+    @Test
+    void testEtagDoAcessorioMudaComOCarro() {
+        String antes = etag("/acessorios/" + acessorioId);
+
+        atualizar("/carros/" + carroId, carro("Opala Comodoro", "250-S"));
+
+        String depois = assertModified("/acessorios/" + acessorioId, antes)
+          .body("carro.modelo", is("Opala Comodoro"))
+          .extract().header("ETag");
+        assertNotEquals(antes, depois);
+    }
+
+    @Test
+    void testEtagDoAcessorioMudaComAFichaTecnica() {
+        String antes = etag("/acessorios/" + acessorioId);
+        String carroAntes = etag("/carros/" + carroId);
+
+        // só a ficha técnica muda: a versão do carro fica igual e a da ficha é incrementada
+        atualizar("/carros/" + carroId, carro("Opala", "250-S com carburador duplo"));
+
+        assertNotEquals(carroAntes, etag("/carros/" + carroId));
+        assertModified("/acessorios/" + acessorioId, antes)
+          .body("carro.versao", is(0))
+          .body("carro.fichaTecnica.detalhesDoMotor", is("250-S com carburador duplo"));
+    }
+
+    @Test
+    void testEtagDoAcessorioMudaComOFabricante() {
+        String antes = etag("/acessorios/" + acessorioId);
+
+        atualizar("/fabricantes/" + fabricanteId, fabricante("Bosch Brasil"));
+
+        assertModified("/acessorios/" + acessorioId, antes)
+          .body("fabricantes[0].nome", is("Bosch Brasil"));
+    }
+
+    private static void assertConditionalRequests(String path, String update, String field, String updatedValue) {
+        String etag = etag(path);
+
+        // a representação não mudou: 304 sem corpo
+        given()
+          .header("If-None-Match", etag)
+          .when().get(path)
+          .then()
+             .statusCode(304)
+             .header("ETag", etag);
+
+        String atual = given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", etag)
+          .body(update)
+          .when().put(path)
+          .then()
+             .statusCode(200)
+             .body(field, is(updatedValue))
+             .header("ETag", notNullValue())
+             .extract().header("ETag");
+        assertNotEquals(etag, atual);
+        assertEquals(atual, etag(path));
+
+        // If-Match com a ETag anterior: 412 e nada é alterado
+        given()
+          .contentType(ContentType.JSON)
+          .header("If-Match", etag)
+          .body(update)
+          .when().put(path)
+          .then()
+             .statusCode(412);
+        assertEquals(atual, etag(path));
+
+        // If-None-Match com a ETag anterior: a representação atual é retornada
+        assertModified(path, etag)
+          .header("ETag", atual)
+          .body(field, is(updatedValue));
+    }
+
+    private static ValidatableResponse assertModified(String path, String previousEtag) {
+        return given()
+          .header("If-None-Match", previousEtag)
+          .when().get(path)
+          .then()
+             .statusCode(200);
+    }
+
+    private static String etag(String path) {
+        return given()
+          .when().get(path)
+          .then()
+             .statusCode(200)
+             .header("ETag", notNullValue())
+             .extract().header("ETag");
+    }
+
+    private static int criar(String path, String body) {
+        return given()
+          .contentType(ContentType.JSON)
+          .body(body)
+          .when().post(path)
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+    }
+
+    private static void atualizar(String path, String body) {
+        given()
+          .contentType(ContentType.JSON)
+          .body(body)
+          .when().put(path)
+          .then()
+             .statusCode(200);
+    }
+
+    private static String carro(String modelo, String motor) {
+        return "{\"modelo\":\"" + modelo + "\",\"paisDeMontagem\":\"Brasil\",\"dataDeFabricacao\":\"1975-03-01\","
+                + "\"fichaTecnica\":{\"detalhesDoMotor\":\"" + motor + "\",\"tipoDeCombustivel\":\"Gasolina\"}}";
+    }
+
+    private static String fabricante(String nome) {
+        return "{\"nome\":\"" + nome + "\",\"detalhes\":\"Sistemas de ignição\"}";
+    }
+
+    private String acessorio(String nome) {
+        return "{\"nome\":\"" + nome + "\",\"descricao\":\"Módulo de ignição\",\"anoAquisicao\":1980,"
+                + "\"valor\":450.0,\"tempoInstalacaoMinutos\":40,\"carro\":{\"id\":" + carroId + "},"
+                + "\"fabricantes\":[{\"id\":" + fabricanteId + "}]}";
+    }
+}
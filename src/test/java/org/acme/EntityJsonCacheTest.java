@@ -0,0 +1,62 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@QuarkusTest
+class EntityJsonCacheTest {
+
+    @Test
+    void testLeituraRepetidaVemDoCache() {
+        Response primeira = given().when().get("/carros/3").then().statusCode(200).extract().response();
+        long hits = hits();
+        Response segunda = given().when().get("/carros/3").then().statusCode(200)
+                .contentType(ContentType.JSON).extract().response();
+
+        assertEquals(hits + 1, hits());
+        assertEquals(primeira.asString(), segunda.asString());
+        assertEquals(primeira.header("ETag"), segunda.header("ETag"));
+    }
+
+    @Test
+    void testAlteracaoEmEntidadeAninhadaDescartaOJson() {
+        given().when().get("/acessorios/1").then().statusCode(200)
+                .body("fabricantes.find { it.id == 6 }.nome", is("Brembo"));
+        String etag = given().when().get("/acessorios/1").then().extract().header("ETag");
+
+        String fabricante = given().when().get("/fabricantes/6").then().statusCode(200).extract().asString();
+        given()
+          .contentType(ContentType.JSON)
+          .body(fabricante.replace("\"Brembo\"", "\"Brembo SpA\""))
+          .when().put("/fabricantes/6")
+          .then()
+             .statusCode(200);
+        try {
+            // o fabricante alterado muda a ETag do acessório, então o JSON guardado não é reutilizado
+            String novaEtag = given().when().get("/acessorios/1").then().statusCode(200)
+                    .body("fabricantes.find { it.id == 6 }.nome", is("Brembo SpA"))
+                    .extract().header("ETag");
+            assertNotEquals(etag, novaEtag);
+        } finally {
+            String atual = given().when().get("/fabricantes/6").then().extract().asString();
+            given()
+              .contentType(ContentType.JSON)
+              .body(atual.replace("\"Brembo SpA\"", "\"Brembo\""))
+              .when().put("/fabricantes/6")
+              .then()
+                 .statusCode(200);
+        }
+        given().when().get("/fabricantes/6").then().statusCode(200).body("nome", is("Brembo"));
+    }
+
+    private static long hits() {
+        return given().when().get("/admin/cache").then().statusCode(200).extract().jsonPath().getLong("EntityResponses.Hits");
+    }
+}
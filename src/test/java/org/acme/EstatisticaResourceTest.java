@@ -0,0 +1,74 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+class EstatisticaResourceTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    void testAcessoriosPorAno() {
+        given()
+          .when().get("/estatisticas/acessorios-por-ano")
+          .then()
+             .statusCode(200)
+             .body("size()", is(2))
+             .body("[0].AnoAquisicao", is(2023))
+             .body("[0].QuantidadeAcessorios", is(3))
+             .body("[1].AnoAquisicao", is(2024))
+             .body("[1].QuantidadeAcessorios", is(2));
+    }
+
+    @Test
+    void testValorAcessoriosPorCarro() {
+        given()
+          .when().get("/estatisticas/valor-acessorios-por-carro")
+          .then()
+             .statusCode(200)
+             .body("find { it.CarroId == 2 }.QuantidadeAcessorios", is(2))
+             .body("find { it.CarroId == 2 }.ValorTotal", is(1850.0f))
+             .body("find { it.CarroId == 2 }.ValorMedio", is(925.0f));
+    }
+
+    @Test
+    void testResultadoVemDoCacheAteUmaEscrita() {
+        Statistics statistics = sessionFactory.getStatistics();
+        given().when().get("/estatisticas/carros-por-pais").then().statusCode(200);
+
+        long hits = statistics.getQueryCacheHitCount();
+        given()
+          .when().get("/estatisticas/carros-por-pais")
+          .then()
+             .statusCode(200)
+             .body("find { it.PaisDeMontagem == 'Estados Unidos' }.QuantidadeCarros", is(2));
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body("{\"modelo\":\"Onix\",\"nomeCompletoVersao\":\"Chevrolet Onix\",\"paisDeMontagem\":\"Estados Unidos\"}")
+          .when().post("/carros")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+        try {
+            given()
+              .when().get("/estatisticas/carros-por-pais")
+              .then()
+                 .statusCode(200)
+                 .body("find { it.PaisDeMontagem == 'Estados Unidos' }.QuantidadeCarros", is(3));
+        } finally {
+            given().when().delete("/carros/" + id).then().statusCode(204);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class FetchPlanTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testSearchAcessoriosLoadsCarroAndFichaTecnicaInOneSelect() {
+        given()
+          .queryParam("size", 5)
+          .when().get("/acessorios/search")
+          .then()
+             .statusCode(200)
+             .body("Acessorios.size()", is(5))
+             .body("Acessorios[0].carro.fichaTecnica.id", is(2));
+
+        // página + carga em lote dos fabricantes
+        assertStatementsAtMost(2);
+    }
+
+    @Test
+    void testGetAllAcessoriosDoesNotLoadCarroPerRow() {
+        given()
+          .when().get("/acessorios")
+          .then()
+             .statusCode(200)
+             .body("size()", is(5));
+
+        assertStatementsAtMost(2);
+    }
+
+    @Test
+    void testSearchCarrosLoadsFichaTecnicaInOneSelect() {
+        given()
+          .queryParam("size", 5)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("Carros.size()", is(5))
+             .body("Carros[0].fichaTecnica.id", is(1));
+
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    void testGetAllCarrosDoesNotLoadFichaTecnicaPerRow() {
+        given()
+          .when().get("/carros")
+          .then()
+             .statusCode(200)
+             .body("size()", is(5));
+
+        assertStatementsAtMost(1);
+    }
+
+    @Test
+    void testInsertAcessorioLoadsCarroAndFabricantesInOneSelect() {
+        SqlCapture.clear();
+        Integer id = given()
+          .contentType(ContentType.JSON)
+          .body(acessorio("Kit de freio", 1, 2, 3, 6))
+          .when().post("/acessorios")
+          .then()
+             .statusCode(201)
+             .body("carro.id", is(1))
+             .body("fabricantes.size()", is(3))
+             .extract().path("id");
+
+        try {
+            assertReferencesLoadedInOneSelect("insert into acessorio");
+        } finally {
+            given().when().delete("/acessorios/" + id).then().statusCode(204);
+        }
+    }
+
+    @Test
+    void testUpdateAcessorioLoadsCarroAndFabricantesInOneSelect() {
+        Integer id = given()
+          .contentType(ContentType.JSON)
+          .body(acessorio("Kit de freio", 1, 6))
+          .when().post("/acessorios")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+
+        try {
+            SqlCapture.clear();
+            given()
+              .contentType(ContentType.JSON)
+              .body(acessorio("Kit de freio", 2, 1, 2, 3))
+              .when().put("/acessorios/" + id)
+              .then()
+                 .statusCode(200)
+                 .body("carro.id", is(2))
+                 .body("fabricantes.size()", is(3));
+
+            assertReferencesLoadedInOneSelect("update acessorio");
+        } finally {
+            given().when().delete("/acessorios/" + id).then().statusCode(204);
+        }
+    }
+
+    private static String acessorio(String nome, long carroId, long... fabricanteIds) {
+        String fabricantes = Arrays.stream(fabricanteIds)
+                .mapToObj(f -> "{\"id\":" + f + "}")
+                .collect(Collectors.joining(","));
+        return "{\"nome\":\"" + nome + "\",\"descricao\":\"Teste\",\"anoAquisicao\":2020,\"valor\":100,"
+                + "\"tempoInstalacaoMinutos\":30,\"carro\":{\"id\":" + carroId + "},\"fabricantes\":[" + fabricantes + "]}";
+    }
+
+    // antes da escrita do acessório uma só consulta lê o carro e os fabricantes referenciados
+    // (a coleção atual, lida para a ETag do update, vem de acessorio_fabricante)
+    private static void assertReferencesLoadedInOneSelect(String write) {
+        List<String> reads = SqlCapture.before(write).stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.contains("from carro ") || sql.contains("from fabricante "))
+                .toList();
+        assertEquals(1, reads.size(), "Consultas de referências: " + reads);
+        assertTrue(reads.get(0).contains("fabricante"), reads.get(0));
+    }
+
+    private void assertStatementsAtMost(long expected) {
+        long executed = statistics.getPrepareStatementCount();
+        assertTrue(executed <= expected, "Esperado no máximo " + expected + " comandos SQL, executados " + executed);
+    }
+}
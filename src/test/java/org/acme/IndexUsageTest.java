@@ -0,0 +1,133 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Executa EXPLAIN sobre o SQL gerado pelos endpoints e verifica que o H2 escolhe
+ * os índices criados pelas migrações.
+ */
+@QuarkusTest
+class IndexUsageTest {
+
+    @Inject
+    DataSource dataSource;
+
+    @BeforeEach
+    void clearCapturedSql() {
+        SqlCapture.clear();
+    }
+
+    @Test
+    void testDeleteCarroCheckUsesAcessorioCarroIndex() throws SQLException {
+        given()
+          .when().delete("/carros/2")
+          .then()
+             .statusCode(409);
+
+        assertPlanUses(SqlCapture.last("count(", "from acessorio"), "IDX_ACESSORIO_CARRO");
+    }
+
+    @Test
+    void testDeleteFabricanteCheckUsesJoinTableIndex() throws SQLException {
+        given()
+          .when().delete("/fabricantes/2")
+          .then()
+             .statusCode(409);
+
+        assertPlanUses(SqlCapture.last("count(", "acessorio_fabricante"), "IDX_ACESSORIO_FABRICANTE_FABRICANTE");
+    }
+
+    @Test
+    void testSearchCarrosByModeloUsesSortedIndex() throws SQLException {
+        String cursor = given()
+          .queryParam("sort", "modelo")
+          .queryParam("size", 2)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .extract().path("NextCursor");
+
+        given()
+          .queryParam("sort", "modelo")
+          .queryParam("size", 2)
+          .queryParam("cursor", cursor)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200);
+
+        String plan = assertPlanUses(SqlCapture.last("from carro", "order by"), "IDX_CARRO_MODELO");
+        assertTrue(plan.contains("index sorted"), "Ordenação não usa o índice: " + plan);
+    }
+
+    @Test
+    void testSearchCarrosByPaisDeMontagemUsesSortedIndex() throws SQLException {
+        given()
+          .queryParam("sort", "paisDeMontagem")
+          .queryParam("direction", "desc")
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200);
+
+        String plan = assertPlanUses(SqlCapture.last("from carro", "order by"), "IDX_CARRO_PAIS_DE_MONTAGEM");
+        assertTrue(plan.contains("index sorted"), "Ordenação não usa o índice: " + plan);
+    }
+
+    @Test
+    void testNumericSearchAcessoriosUsesBothIndexes() throws SQLException {
+        given()
+          .queryParam("q", "2023")
+          .when().get("/acessorios/search")
+          .then()
+             .statusCode(200);
+
+        String sql = SqlCapture.last("from acessorio", "union", "order by");
+        assertPlanUses(sql, "IDX_ACESSORIO_ANO_AQUISICAO");
+        assertPlanUses(sql, "IDX_ACESSORIO_TEMPO_INSTALACAO");
+    }
+
+    private String assertPlanUses(String sql, String index) throws SQLException {
+        String plan = explain(sql);
+        assertTrue(plan.contains("PUBLIC." + index), "Plano não usa " + index + ": " + plan);
+        return plan;
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                statement.setObject(i, sample(parameters.getParameterType(i)));
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getString(1);
+            }
+        }
+    }
+
+    // o valor não importa para o plano, só o tipo, para que o H2 não converta a coluna
+    private static Object sample(int type) {
+        return switch (type) {
+            case Types.VARCHAR, Types.CHAR, Types.CLOB -> "a";
+            case Types.DATE -> Date.valueOf("2020-01-01");
+            case Types.DOUBLE, Types.FLOAT, Types.DECIMAL, Types.NUMERIC -> 1.0;
+            case Types.INTEGER -> 1;
+            default -> 1L;
+        };
+    }
+}
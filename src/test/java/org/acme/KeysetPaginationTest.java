@@ -0,0 +1,186 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Percorre as buscas de carros pelo cursor e confere que as páginas somadas trazem todos os
+ * carros, sem repetições, na ordem pedida, inclusive com empates e nulos no campo de ordenação.
+ */
+@QuarkusTest
+class KeysetPaginationTest {
+
+    private final List<Integer> criados = new ArrayList<>();
+
+    @BeforeEach
+    void criarEmpatesENulos() {
+        // dois carros sem data e dois com a mesma data de um carro da migração (2023-01-01)
+        criados.add(criar("Kombi", null));
+        criados.add(criar("Brasília", null));
+        criados.add(criar("Fusca", "2023-01-01"));
+        criados.add(criar("Passat", "2023-01-01"));
+        SqlCapture.clear();
+    }
+
+    @AfterEach
+    void removerCriados() {
+        criados.forEach(id -> given().when().delete("/carros/" + id).then().statusCode(204));
+        criados.clear();
+    }
+
+    @Test
+    void testCursorPercorreEmpatesENulosEmOrdemCrescente() {
+        List<Map<String, Object>> carros = percorrer("dataDeFabricacao", "asc");
+
+        assertSemLacunasNemRepeticoes(carros);
+        // nulos primeiro; empates pela data desempatados pelo id
+        Comparator<Map<String, Object>> ordem = Comparator
+                .comparing((Map<String, Object> c) -> data(c), Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(c -> id(c));
+        assertEquals(carros.stream().sorted(ordem).toList(), carros);
+    }
+
+    @Test
+    void testCursorPercorreEmpatesENulosEmOrdemDecrescente() {
+        List<Map<String, Object>> carros = percorrer("dataDeFabricacao", "desc");
+
+        assertSemLacunasNemRepeticoes(carros);
+        Comparator<Map<String, Object>> ordem = Comparator
+                .comparing((Map<String, Object> c) -> data(c), Comparator.nullsLast(Comparator.<LocalDate>reverseOrder()))
+                .thenComparing(c -> id(c), Comparator.reverseOrder());
+        assertEquals(carros.stream().sorted(ordem).toList(), carros);
+    }
+
+    @Test
+    void testCursorPercorreEmpatesDeTexto() {
+        // "Estados Unidos" e "México" aparecem duas vezes nos dados da migração
+        List<Map<String, Object>> carros = percorrer("paisDeMontagem", "asc");
+
+        assertSemLacunasNemRepeticoes(carros);
+        Comparator<Map<String, Object>> ordem = Comparator
+                .comparing((Map<String, Object> c) -> (String) c.get("paisDeMontagem"))
+                .thenComparing(c -> id(c));
+        assertEquals(carros.stream().sorted(ordem).toList(), carros);
+    }
+
+    @Test
+    void testCountFalseNaoCalculaOTotal() {
+        given()
+          .queryParam("size", 2)
+          .queryParam("count", false)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("Carros.size()", is(2))
+             .body("TotalCarros", is(-1))
+             .body("TotalPages", is(-1))
+             .body("HasMore", is(true));
+
+        assertFalse(SqlCapture.count("count(", "from carro") > 0, "count=false não deve executar COUNT");
+
+        given()
+          .queryParam("size", 2)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("TotalCarros", is(5 + criados.size()));
+    }
+
+    @Test
+    void testCursorDeOutraOrdenacaoERecusado() {
+        String cursor = given()
+          .queryParam("sort", "modelo")
+          .queryParam("size", 2)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("NextCursor", notNullValue())
+             .extract().path("NextCursor");
+
+        given()
+          .queryParam("sort", "modelo")
+          .queryParam("direction", "desc")
+          .queryParam("cursor", cursor)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(400);
+    }
+
+    private List<Map<String, Object>> percorrer(String sort, String direction) {
+        List<Map<String, Object>> carros = new ArrayList<>();
+        String cursor = null;
+        for (int pagina = 0; pagina < 20; pagina++) {
+            var request = given()
+              .queryParam("sort", sort)
+              .queryParam("direction", direction)
+              .queryParam("size", 2);
+            if (cursor != null) {
+                request.queryParam("cursor", cursor);
+            }
+            JsonPath page = request
+              .when().get("/carros/search")
+              .then()
+                 .statusCode(200)
+                 .extract().jsonPath();
+            carros.addAll(page.getList("Carros"));
+            if (!page.getBoolean("HasMore")) {
+                assertEquals("", page.getString("NextPage"));
+                return carros;
+            }
+            cursor = page.getString("NextCursor");
+        }
+        throw new AssertionError("A paginação não terminou em 20 páginas");
+    }
+
+    private static void assertSemLacunasNemRepeticoes(List<Map<String, Object>> carros) {
+        List<Long> todos = given()
+          .when().get("/carros")
+          .then()
+             .statusCode(200)
+             .extract().jsonPath().getList("id", Long.class);
+
+        List<Long> percorridos = carros.stream().map(KeysetPaginationTest::id).toList();
+        assertEquals(percorridos.size(), new HashSet<>(percorridos).size(), "Carros repetidos: " + percorridos);
+        assertEquals(new HashSet<>(todos), new HashSet<>(percorridos));
+    }
+
+    private static int criar(String modelo, String data) {
+        String body = "{\"modelo\":\"" + modelo + "\",\"paisDeMontagem\":\"Brasil\""
+                + (data != null ? ",\"dataDeFabricacao\":\"" + data + "\"" : "") + "}";
+        return given()
+          .contentType(ContentType.JSON)
+          .body(body)
+          .when().post("/carros")
+          .then()
+             .statusCode(201)
+             .body("dataDeFabricacao", data == null ? nullValue() : is(data))
+             .extract().path("id");
+    }
+
+    private static Long id(Map<String, Object> carro) {
+        return ((Number) carro.get("id")).longValue();
+    }
+
+    private static LocalDate data(Map<String, Object> carro) {
+        Object value = carro.get("dataDeFabricacao");
+        return value == null ? null : LocalDate.parse(value.toString());
+    }
+}
@@ -0,0 +1,304 @@
+package org.acme;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Carga com muitos clientes simultâneos sobre a massa gerada pelo {@link DatasetGenerator}
+ * ({@code -Dload.carros=100000} por padrão). Fica fora da execução padrão; rode com
+ * {@code mvn test -Pload}. Cada cenário cobre um endpoint e reporta vazão e percentis;
+ * {@code -Dload.scenarios=carros-getById,carros-search} roda só os cenários escolhidos, inclusive
+ * os que leem a tabela inteira e por isso ficam fora da lista padrão.
+ * Compare a vazão entre os modelos de execução: virtual threads (padrão) e pool de workers
+ * ({@code -Dquarkus.virtual-threads.enabled=false}), por exemplo com
+ * {@code -Dload.concurrency=2000 -Dquarkus.hibernate-orm.log.sql=false}.
+ * As alocações por requisição do getById podem ser comparadas com e sem o cache de JSON
+ * ({@code -Dentity-json-cache.enabled=false}).
+ */
+@QuarkusTest
+@TestProfile(LoadTest.MassaDeDados.class)
+@Tag("load")
+class LoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("load.duration", "10s"));
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Set<String> SELECTED = System.getProperty("load.scenarios", "").isBlank()
+            ? Set.of() : Set.of(System.getProperty("load.scenarios").split("\\s*,\\s*"));
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static class MassaDeDados implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "dataset.generate", "true",
+                    "dataset.carros", System.getProperty("load.carros", "100000"),
+                    "quarkus.hibernate-orm.log.sql", "false");
+        }
+    }
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Inject
+    DatasetGenerator dataset;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    /**
+     * @param heavy cenários que leem a tabela inteira; só rodam quando escolhidos em {@code load.scenarios}
+     */
+    record Scenario(String name, boolean heavy, Action action) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @FunctionalInterface
+    interface Action {
+        /** Executa uma iteração do cenário; retorna false quando alguma resposta não teve o status esperado. */
+        boolean run(LoadTest test) throws Exception;
+    }
+
+    static Stream<Scenario> scenarios() {
+        List<Scenario> all = List.of(
+                read("carros-getById", t -> "carros/" + t.id(t.dataset.carroIds())),
+                read("carros-resumo", t -> "carros/" + t.id(t.dataset.carroIds()) + "/resumo"),
+                read("carros-search", t -> "carros/search?q=" + t.pick("gol", "onix", "corolla", "brasil") + "&size=20"),
+                read("carros-search-keyset", t -> "carros/search?sort=modelo&size=20&count=false"),
+                read("carros-search-fields", t -> "carros/search?fields=modelo,paisDeMontagem&size=50&page=" + t.random().nextInt(100)),
+                heavy("carros-getAll", t -> "carros"),
+                heavy("carros-stream", t -> "carros/stream?format=ndjson"),
+                read("acessorios-getById", t -> "acessorios/" + t.id(t.dataset.acessorioIds())),
+                read("acessorios-search", t -> "acessorios/search?q=" + t.pick("pneu", "turbina", "alarme", "engate") + "&size=20"),
+                read("acessorios-search-keyset", t -> "acessorios/search?sort=valor&direction=desc&size=20&count=false"),
+                heavy("acessorios-getAll", t -> "acessorios"),
+                heavy("acessorios-stream", t -> "acessorios/stream?format=ndjson"),
+                read("fabricantes-getById", t -> "fabricantes/" + t.id(t.dataset.fabricanteIds())),
+                read("fabricantes-getAll", t -> "fabricantes"),
+                read("fabricantes-search", t -> "fabricantes/search?q=" + t.pick("bosch", "pirelli", "denso") + "&size=20"),
+                read("fabricantes-stream", t -> "fabricantes/stream"),
+                read("estatisticas-valor-por-carro", t -> "estatisticas/valor-acessorios-por-carro"),
+                read("estatisticas-tempo-por-fabricante", t -> "estatisticas/tempo-instalacao-por-fabricante"),
+                read("estatisticas-carros-por-pais", t -> "estatisticas/carros-por-pais"),
+                read("estatisticas-acessorios-por-ano", t -> "estatisticas/acessorios-por-ano"),
+                new Scenario("carros-escrita", false, LoadTest::escritaCarro),
+                new Scenario("acessorios-escrita", false, LoadTest::escritaAcessorio),
+                new Scenario("fabricantes-escrita", false, LoadTest::escritaFabricante),
+                new Scenario("acessorios-bulk", false, LoadTest::bulkAcessorios));
+        return all.stream().filter(s -> SELECTED.isEmpty() ? !s.heavy() : SELECTED.contains(s.name()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("scenarios")
+    void testScenario(Scenario scenario) throws Exception {
+        measure(scenario, WARMUP);
+        Result result = measure(scenario, DURATION);
+
+        System.out.printf("%-36s concorrência=%d iterações=%d vazão=%.0f it/s p50=%.1f ms p90=%.1f ms p99=%.1f ms p99.9=%.1f ms erros=%d%n",
+                scenario.name(), CONCURRENCY, result.requests(), result.requests() / (DURATION.toMillis() / 1000.0),
+                result.percentile(50), result.percentile(90), result.percentile(99), result.percentile(99.9), result.errors());
+        assertEquals(0, result.errors(), "Requisições com erro durante a carga");
+    }
+
+    @Test
+    void testGetByIdAllocations() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int requests = 20_000;
+
+        // o servidor roda na mesma JVM; o total inclui o cliente HTTP, que é igual nas duas medições
+        for (String path : List.of("carros/2", "acessorios/1", "fabricantes/2")) {
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+            for (int i = 0; i < 2_000; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+            long before = threads.getTotalThreadAllocatedBytes();
+            for (int i = 0; i < requests; i++) {
+                assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+            }
+            long allocated = threads.getTotalThreadAllocatedBytes() - before;
+            System.out.printf("%-24s alocação=%d bytes/requisição%n", "GET /" + path, allocated / requests);
+        }
+    }
+
+    private static Scenario read(String name, Function<LoadTest, String> path) {
+        return new Scenario(name, false, test -> test.get(path.apply(test)) == 200);
+    }
+
+    private static Scenario heavy(String name, Function<LoadTest, String> path) {
+        return new Scenario(name, true, test -> test.get(path.apply(test)) == 200);
+    }
+
+    // POST, GET, PUT e DELETE do mesmo carro
+    private static boolean escritaCarro(LoadTest test) throws Exception {
+        HttpResponse<String> created = test.send("POST", "carros",
+                "{\"modelo\":\"Carga\",\"nomeCompletoVersao\":\"Carga 1.0\",\"paisDeMontagem\":\"Brasil\","
+                         + "\"fichaTecnica\":{\"detalhesDoMotor\":\"1.0 12V\"}}");
+        if (created.statusCode() != 201) {
+            return false;
+        }
+        long id = id(created.body());
+        HttpResponse<String> atual = test.send("GET", "carros/" + id, null);
+        HttpResponse<String> updated = test.send("PUT", "carros/" + id, atual.body().replace("\"Carga 1.0\"", "\"Carga 1.0 Turbo\""));
+        return atual.statusCode() == 200 && updated.statusCode() == 200
+                && test.send("DELETE", "carros/" + id, null).statusCode() == 204;
+    }
+
+    // POST, PUT e DELETE de um acessório em um carro da massa, o que também atualiza o resumo do carro
+    private static boolean escritaAcessorio(LoadTest test) throws Exception {
+        String body = acessorio(test.id(test.dataset.carroIds()), test.id(test.dataset.fabricanteIds()));
+        HttpResponse<String> created = test.send("POST", "acessorios", body);
+        if (created.statusCode() != 201) {
+            return false;
+        }
+        long id = id(created.body());
+        return test.send("PUT", "acessorios/" + id, body.replace("\"valor\":100.0", "\"valor\":120.0")).statusCode() == 200
+                && test.send("DELETE", "acessorios/" + id, null).statusCode() == 204;
+    }
+
+    private static boolean escritaFabricante(LoadTest test) throws Exception {
+        HttpResponse<String> created = test.send("POST", "fabricantes", "{\"nome\":\"Carga\",\"detalhes\":\"Fabricante de carga\"}");
+        if (created.statusCode() != 201) {
+            return false;
+        }
+        long id = id(created.body());
+        return test.send("PUT", "fabricantes/" + id, "{\"nome\":\"Carga 2\",\"detalhes\":\"Fabricante de carga\"}").statusCode() == 200
+                && test.send("DELETE", "fabricantes/" + id, null).statusCode() == 204;
+    }
+
+    // upsert de 20 acessórios em lote e remoção em lote dos mesmos ids
+    private static boolean bulkAcessorios(LoadTest test) throws Exception {
+        List<String> itens = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            itens.add(acessorio(test.id(test.dataset.carroIds()), test.id(test.dataset.fabricanteIds())));
+        }
+        HttpResponse<String> upsert = test.send("PUT", "acessorios/bulk", "[" + String.join(",", itens) + "]");
+        if (upsert.statusCode() != 200) {
+            return false;
+        }
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = Pattern.compile("\"Id\"\\s*:\\s*(\\d+)").matcher(upsert.body());
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids.size() == itens.size()
+                && test.send("DELETE", "acessorios/bulk", "[" + String.join(",", ids) + "]").statusCode() == 200;
+    }
+
+    private static String acessorio(long carroId, long fabricanteId) {
+        return "{\"nome\":\"Acessório de carga\",\"descricao\":\"Criado pelo teste de carga\",\"anoAquisicao\":2024,"
+                + "\"valor\":100.0,\"tempoInstalacaoMinutos\":15,\"carro\":{\"id\":" + carroId + "},"
+                + "\"fabricantes\":[{\"id\":" + fabricanteId + "}]}";
+    }
+
+    private static long id(String body) {
+        Matcher matcher = ID.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Resposta sem id: " + body);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    private long id(DatasetGenerator.Range range) {
+        return range.first() + random().nextLong(range.size());
+    }
+
+    private String pick(String... values) {
+        return values[random().nextInt(values.length)];
+    }
+
+    private int get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpResponse<String> send(String method, String path, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path));
+        if (json == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Result measure(Scenario scenario, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> latencies = new ArrayList<>();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                List<Long> own = new ArrayList<>();
+                latencies.add(own);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            if (!scenario.action().run(this)) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        own.add(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        return new Result(all, errors.get());
+    }
+
+    private record Result(List<Long> latencies, long errors) {
+
+        long requests() {
+            return latencies.size();
+        }
+
+        double percentile(double p) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * latencies.size()) - 1;
+            return latencies.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+
+@QuarkusTest
+class MetricsTest {
+
+    @Test
+    void testMetricasPrometheus() {
+        given().when().get("/carros/1").then().statusCode(200);
+        given().when().get("/fabricantes/999").then().statusCode(404);
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("http_endpoint_requests_seconds_bucket{method=\"getById\",resource=\"CarroResource\",status=\"200\""))
+             .body(containsString("http_endpoint_requests_seconds_count{method=\"getById\",resource=\"FabricanteResource\",status=\"404\"}"))
+             .body(containsString("http_server_requests_seconds_count{method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/carros/{id}\"}"))
+             .body(containsString("hibernate_query_executions_total"))
+             .body(containsString("hibernate_entities_loads_total"))
+             .body(containsString("hibernate_second_level_cache_requests_total"))
+             .body(containsString("hibernate_flushes_total"))
+             .body(containsString("agroal_active_count"))
+             .body(containsString("agroal_available_count"))
+             .body(containsString("agroal_awaiting_count"));
+    }
+}
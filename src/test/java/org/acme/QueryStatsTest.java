@@ -0,0 +1,50 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class QueryStatsTest {
+
+    @Test
+    void testConsultasOrdenadasPorTempo() {
+        given().queryParam("sort", "modelo").queryParam("size", 2).when().get("/carros/search").then().statusCode(200);
+
+        List<Long> totals = given()
+          .queryParam("top", 3)
+          .when().get("/admin/queries")
+          .then()
+             .statusCode(200)
+             .body("Queries.size()", lessThanOrEqualTo(3))
+             .body("TotalQueries", greaterThanOrEqualTo(1))
+             .extract().jsonPath().getList("Queries.TotalTimeMs", Long.class);
+        for (int i = 1; i < totals.size(); i++) {
+            assertTrue(totals.get(i - 1) >= totals.get(i), "Consultas fora de ordem: " + totals);
+        }
+
+        given()
+          .queryParam("top", 1000)
+          .queryParam("sort", "max")
+          .when().get("/admin/queries")
+          .then()
+             .statusCode(200)
+             .body("Queries.Query", hasItem(containsString("from Carro")));
+    }
+
+    @Test
+    void testParametrosInvalidos() {
+        given().queryParam("top", 0).when().get("/admin/queries").then().statusCode(400);
+        given().queryParam("sort", "avg").when().get("/admin/queries").then().statusCode(400)
+                .body(is("Use top maior que zero e sort igual a total ou max"));
+    }
+}
@@ -0,0 +1,185 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+@QuarkusTest
+class ResumoCarroTest {
+
+    @Test
+    void testResumoPreenchidoPelaMigracao() {
+        given()
+          .when().get("/carros/2/resumo")
+          .then()
+             .statusCode(200)
+             .body("quantidadeAcessorios", is(2))
+             .body("valorTotal", is(1850.0f))
+             .body("tempoInstalacaoTotal", is(60))
+             .body("fabricantes", is(List.of("Brembo", "Garrett", "Michelin")));
+
+        given()
+          .when().get("/carros/1/resumo")
+          .then()
+             .statusCode(200)
+             .body("quantidadeAcessorios", is(0))
+             .body("fabricantes.size()", is(0));
+
+        given()
+          .when().get("/carros/999/resumo")
+          .then()
+             .statusCode(404);
+    }
+
+    @Test
+    void testResumoAcompanhaEscritasDeAcessorios() {
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body(acessorio(1))
+          .when().post("/acessorios")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+        try {
+            given()
+              .when().get("/carros/1/resumo")
+              .then()
+                 .statusCode(200)
+                 .body("quantidadeAcessorios", is(1))
+                 .body("valorTotal", is(100.0f))
+                 .body("tempoInstalacaoTotal", is(10))
+                 .body("fabricantes", is(List.of("BOSCH")));
+
+            given()
+              .contentType(ContentType.JSON)
+              .body(acessorio(3))
+              .when().put("/acessorios/" + id)
+              .then()
+                 .statusCode(200);
+
+            given()
+              .when().get("/carros/1/resumo")
+              .then()
+                 .statusCode(200)
+                 .body("quantidadeAcessorios", is(0))
+                 .body("fabricantes.size()", is(0));
+            given()
+              .when().get("/carros/3/resumo")
+              .then()
+                 .statusCode(200)
+                 .body("quantidadeAcessorios", is(2))
+                 .body("valorTotal", is(1300.0f))
+                 .body("tempoInstalacaoTotal", is(130))
+                 .body("fabricantes", is(List.of("BOSCH", "Michelin", "Recaro")));
+        } finally {
+            given().when().delete("/acessorios/" + id).then().statusCode(204);
+        }
+
+        given()
+          .when().get("/carros/3/resumo")
+          .then()
+             .statusCode(200)
+             .body("quantidadeAcessorios", is(1))
+             .body("valorTotal", is(1200.0f));
+    }
+
+    @Test
+    void testUpdateRejeitadoNaoAlteraAcessorioNemResumo() {
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body(acessorio(1))
+          .when().post("/acessorios")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+        try {
+            given()
+              .contentType(ContentType.JSON)
+              .body(acessorio(3).replace("Sensor de estacionamento", "Alterado")
+                      .replace("[{\"id\":1}]", "[{\"id\":1},{\"id\":999}]"))
+              .when().put("/acessorios/" + id)
+              .then()
+                 .statusCode(400);
+
+            given()
+              .when().get("/acessorios/" + id)
+              .then()
+                 .statusCode(200)
+                 .body("nome", is("Sensor de estacionamento"))
+                 .body("carro.id", is(1))
+                 .body("fabricantes.size()", is(1));
+            given()
+              .when().get("/carros/1/resumo")
+              .then()
+                 .statusCode(200)
+                 .body("quantidadeAcessorios", is(1))
+                 .body("fabricantes", is(List.of("BOSCH")));
+            given()
+              .when().get("/carros/3/resumo")
+              .then()
+                 .statusCode(200)
+                 .body("quantidadeAcessorios", is(1))
+                 .body("valorTotal", is(1200.0f));
+        } finally {
+            given().when().delete("/acessorios/" + id).then().statusCode(204);
+        }
+    }
+
+    @Test
+    void testResumoAcompanhaBulk() {
+        int id = given()
+          .contentType(ContentType.JSON)
+          .body("[" + acessorio(1) + "]")
+          .when().put("/acessorios/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(1))
+             .extract().path("Results[0].Id");
+
+        given()
+          .when().get("/carros/1/resumo")
+          .then()
+             .statusCode(200)
+             .body("quantidadeAcessorios", is(1))
+             .body("fabricantes", is(List.of("BOSCH")));
+
+        given()
+          .contentType(ContentType.JSON)
+          .body("[" + id + "]")
+          .when().delete("/acessorios/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(1));
+
+        given()
+          .when().get("/carros/1/resumo")
+          .then()
+             .statusCode(200)
+             .body("quantidadeAcessorios", is(0));
+    }
+
+    @Test
+    void testSearchIncluiResumos() {
+        given()
+          .queryParam("size", 5)
+          .queryParam("resumo", true)
+          .queryParam("fields", "modelo")
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("Resumos.size()", is(5))
+             .body("Resumos.'2'.quantidadeAcessorios", is(2))
+             .body("Resumos.'1'.quantidadeAcessorios", is(0));
+    }
+
+    private static String acessorio(long carroId) {
+        return "{\"nome\":\"Sensor de estacionamento\",\"descricao\":\"Sensor traseiro com alerta sonoro\","
+                + "\"anoAquisicao\":2024,\"valor\":100.0,\"tempoInstalacaoMinutos\":10,"
+                + "\"carro\":{\"id\":" + carroId + "},\"fabricantes\":[{\"id\":1}]}";
+    }
+}
@@ -0,0 +1,84 @@
+package org.acme;
+
+import io.quarkus.runtime.LaunchMode;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O interceptor recusa, fora dos modos dev e test, as configurações que apagariam o banco.
+ */
+class SchemaGenerationGuardTest {
+
+    private LaunchMode original;
+
+    @BeforeEach
+    void guardarModo() {
+        original = LaunchMode.current();
+    }
+
+    @AfterEach
+    void restaurarModo() {
+        LaunchMode.set(original);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"drop-and-create", "drop", "create", " Drop-And-Create "})
+    void testProdRecusaGeracaoDestrutiva(String setting) {
+        LaunchMode.set(LaunchMode.NORMAL);
+        SmallRyeConfig config = config(SchemaGenerationGuard.GENERATION, setting);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> config.getConfigValue(SchemaGenerationGuard.GENERATION));
+        assertTrue(e.getMessage().contains("apagaria o banco de dados"), e.getMessage());
+    }
+
+    @Test
+    void testProdRecusaCleanAtStartDoLiquibase() {
+        LaunchMode.set(LaunchMode.NORMAL);
+        SmallRyeConfig config = config(SchemaGenerationGuard.LIQUIBASE_CLEAN, "true");
+
+        assertThrows(IllegalStateException.class, () -> config.getConfigValue(SchemaGenerationGuard.LIQUIBASE_CLEAN));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"validate", "none", "update"})
+    void testProdAceitaGeracaoQueNaoApaga(String setting) {
+        LaunchMode.set(LaunchMode.NORMAL);
+
+        assertEquals(setting, config(SchemaGenerationGuard.GENERATION, setting)
+                .getConfigValue(SchemaGenerationGuard.GENERATION).getValue());
+        assertEquals("false", config(SchemaGenerationGuard.LIQUIBASE_CLEAN, "false")
+                .getConfigValue(SchemaGenerationGuard.LIQUIBASE_CLEAN).getValue());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = LaunchMode.class, names = {"DEVELOPMENT", "TEST"})
+    void testDevETestPodemApagarOBanco(LaunchMode mode) {
+        LaunchMode.set(mode);
+
+        assertEquals("drop-and-create", config(SchemaGenerationGuard.GENERATION, "drop-and-create")
+                .getConfigValue(SchemaGenerationGuard.GENERATION).getValue());
+        assertEquals("true", config(SchemaGenerationGuard.LIQUIBASE_CLEAN, "true")
+                .getConfigValue(SchemaGenerationGuard.LIQUIBASE_CLEAN).getValue());
+    }
+
+    private static SmallRyeConfig config(String name, String value) {
+        return new SmallRyeConfigBuilder()
+                .withSources(new PropertiesConfigSource(Map.of(name, value), "teste", 100))
+                .withInterceptors(new SchemaGenerationGuard())
+                .build();
+    }
+}
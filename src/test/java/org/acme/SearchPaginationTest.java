@@ -0,0 +1,133 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class SearchPaginationTest {
+
+    @Inject
+    FullTextIndex fullTextIndex;
+
+    @Test
+    void testFullTextReadsOnlyTheTable() {
+        // "alta" também casa com acessórios e com uma ficha técnica, que ficam fora da consulta
+        assertEquals(Set.of(2L, 3L, 4L), fullTextIndex.search(FullTextIndex.FABRICANTE, "alta", 10).keySet());
+        assertEquals(Set.of(1L, 2L, 4L), fullTextIndex.search(FullTextIndex.ACESSORIO, "alta", 10).keySet());
+        assertEquals(2, fullTextIndex.search(FullTextIndex.FABRICANTE, "alta", 2).size());
+        assertEquals(3, fullTextIndex.count(FullTextIndex.FABRICANTE, "alta"));
+
+        given()
+          .queryParam("q", "alta")
+          .queryParam("size", 1)
+          .when().get("/fabricantes/search")
+          .then()
+             .statusCode(200)
+             .body("TotalFabricantes", is(3))
+             .body("TotalPages", is(3))
+             .body("HasMore", is(true));
+    }
+
+    @Test
+    void testRelevancePagesLoadOnlyThePageIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            SqlCapture.clear();
+            JsonPath result = given()
+              .queryParam("q", "alta")
+              .queryParam("sort", "relevance")
+              .queryParam("size", 1)
+              .queryParam("page", page)
+              .when().get("/fabricantes/search")
+              .then()
+                 .statusCode(200)
+                 .body("Fabricantes.size()", is(1))
+                 .body("TotalFabricantes", is(3))
+                 .body("HasMore", is(page < 2))
+                 .extract().jsonPath();
+            ids.add(result.getInt("Fabricantes[0].id"));
+
+            String select = SqlCapture.last("from fabricante");
+            assertTrue(select.contains("in (?)"), select);
+        }
+        assertEquals(Set.of(2, 3, 4), Set.copyOf(ids));
+        assertEquals(3, ids.size());
+    }
+
+    @Test
+    void testCarroMatchesThroughTheFichaTecnica() {
+        // "cavalos" só aparece nos detalhes do motor das fichas dos carros 1, 2, 4 e 5
+        assertEquals(List.of(1L, 2L, 4L, 5L), fullTextIndex.matches(FullTextIndex.CARRO, "cavalos",
+                Map.of(FullTextIndex.FICHA_TECNICA, "FICHA_TECNICA_ID")).stream().sorted().toList());
+
+        List<Integer> relevance = new ArrayList<>();
+        for (int page = 0; page < 2; page++) {
+            relevance.addAll(given()
+              .queryParam("q", "cavalos")
+              .queryParam("sort", "relevance")
+              .queryParam("size", 2)
+              .queryParam("page", page)
+              .when().get("/carros/search")
+              .then()
+                 .statusCode(200)
+                 .body("TotalCarros", is(4))
+                 .body("HasMore", is(page == 0))
+                 .extract().jsonPath().getList("Carros.id", Integer.class));
+        }
+        assertEquals(Set.of(1, 2, 4, 5), Set.copyOf(relevance));
+        assertEquals(4, relevance.size());
+
+        given()
+          .queryParam("q", "cavalos")
+          .queryParam("sort", "modelo")
+          .queryParam("size", 2)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("Carros.modelo", is(List.of("Fusion", "Golf R")))
+             .body("TotalCarros", is(4))
+             .body("TotalPages", is(2));
+    }
+
+    @Test
+    void testNextPageKeepsEncodedQuery() {
+        JsonPath first = given()
+          .queryParam("q", "Estados Unidos")
+          .queryParam("size", 1)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("Carros.size()", is(1))
+             .body("TotalCarros", is(2))
+             .body("HasMore", is(true))
+             .extract().jsonPath();
+
+        String nextPage = first.getString("NextPage");
+        assertTrue(nextPage.contains("q=Estados%20Unidos") || nextPage.contains("q=Estados+Unidos"), nextPage);
+        assertTrue(nextPage.contains("page=1"), nextPage);
+
+        JsonPath second = given()
+          .urlEncodingEnabled(false)
+          .when().get(nextPage)
+          .then()
+             .statusCode(200)
+             .body("Carros.size()", is(1))
+             .body("HasMore", is(false))
+             .extract().jsonPath();
+
+        assertNotEquals(first.getLong("Carros[0].id"), second.getLong("Carros[0].id"));
+    }
+}
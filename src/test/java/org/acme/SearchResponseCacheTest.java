@@ -0,0 +1,127 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(SearchResponseCacheTest.CacheAtivo.class)
+class SearchResponseCacheTest {
+
+    public static class CacheAtivo implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("search.response-cache.enabled", "true");
+        }
+    }
+
+    @Test
+    void testRespostaRepetidaVemDoCache() {
+        long hits = hits();
+        given().queryParam("q", " ford ").when().get("/carros/search").then().statusCode(200);
+        given().queryParam("q", "ford").when().get("/carros/search").then().statusCode(200).body("TotalCarros", is(2));
+        assertEquals(hits + 1, hits());
+    }
+
+    @Test
+    void testTextoComOutraCaixaEEspacosUsaAMesmaResposta() {
+        given().queryParam("q", "Estados  Unidos").when().get("/carros/search").then().statusCode(200);
+        long hits = hits();
+        given().queryParam("q", "estados unidos").when().get("/carros/search").then().statusCode(200).body("TotalCarros", is(2));
+        assertEquals(hits + 1, hits());
+    }
+
+    @Test
+    void testNextPageEMontadoSobreAUriDeCadaRequisicao() {
+        String primeira = given()
+          .queryParam("q", "Ford")
+          .queryParam("size", 1)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("HasMore", is(true))
+             .extract().path("NextPage");
+        assertTrue(primeira.contains("q=Ford&") || primeira.endsWith("q=Ford"), primeira);
+
+        // a mesma resposta guardada, com o link da próxima página sobre a URI desta requisição
+        long hits = hits();
+        String segunda = given()
+          .queryParam("size", 1)
+          .queryParam("q", "FORD")
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .extract().path("NextPage");
+        assertEquals(hits + 1, hits());
+        assertTrue(segunda.contains("q=FORD"), segunda);
+        assertTrue(segunda.contains("page=1"), segunda);
+
+        String cursor = given()
+          .queryParam("q", "ford")
+          .queryParam("size", 1)
+          .queryParam("sort", "modelo")
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .extract().path("NextCursor");
+        String proxima = given()
+          .queryParam("q", "ford")
+          .queryParam("size", 1)
+          .queryParam("sort", "modelo")
+          .queryParam("cursor", cursor)
+          .when().get("/carros/search")
+          .then()
+             .statusCode(200)
+             .body("HasMore", is(false))
+             .extract().path("NextPage");
+        assertEquals("", proxima);
+    }
+
+    @Test
+    void testEscritaInvalidaAsBuscasQueExibemAEntidade() {
+        given().queryParam("size", 5).when().get("/acessorios/search").then().statusCode(200)
+                .body("Acessorios[0].fabricantes.find { it.id == 6 }.nome", is("Brembo"));
+
+        String fabricante = given().when().get("/fabricantes/6").then().statusCode(200).extract().asString();
+        given()
+          .contentType(ContentType.JSON)
+          .body(fabricante.replace("\"Brembo\"", "\"Brembo SpA\""))
+          .when().put("/fabricantes/6")
+          .then()
+             .statusCode(200);
+        try {
+            // o acessório exibe os fabricantes, então a resposta guardada não pode ser reutilizada
+            given().queryParam("size", 5).when().get("/acessorios/search").then().statusCode(200)
+                    .body("Acessorios[0].fabricantes.find { it.id == 6 }.nome", is("Brembo SpA"));
+        } finally {
+            String atual = given().when().get("/fabricantes/6").then().extract().asString();
+            given()
+              .contentType(ContentType.JSON)
+              .body(atual.replace("\"Brembo SpA\"", "\"Brembo\""))
+              .when().put("/fabricantes/6")
+              .then()
+                 .statusCode(200);
+        }
+    }
+
+    @Test
+    void testRespostaDeErroNaoEGuardada() {
+        long misses = given().when().get("/admin/cache").then().extract().jsonPath().getLong("SearchResponses.Misses");
+        given().queryParam("fields", "inexistente").when().get("/fabricantes/search").then().statusCode(400);
+        given().queryParam("fields", "inexistente").when().get("/fabricantes/search").then().statusCode(400);
+        assertEquals(misses + 2, given().when().get("/admin/cache").then().extract().jsonPath().getLong("SearchResponses.Misses"));
+    }
+
+    private static long hits() {
+        return given().when().get("/admin/cache").then().statusCode(200).extract().jsonPath().getLong("SearchResponses.Hits");
+    }
+}
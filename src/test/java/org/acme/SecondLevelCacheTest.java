@@ -0,0 +1,174 @@
+package org.acme;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Cache de segundo nível da entidade Fabricante e cache de consultas do getAll, medidos pelas
+ * estatísticas do Hibernate antes e depois de cada operação. As leituras por id são feitas pelo
+ * Panache, em transações separadas, porque o GET /fabricantes/{id} é atendido pelo EntityJsonCache.
+ */
+@QuarkusTest
+class SecondLevelCacheTest {
+
+    private static final String REGIAO = Fabricante.class.getName();
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    Statistics statistics;
+
+    private Integer id;
+
+    @BeforeEach
+    void criarFabricante() {
+        statistics = sessionFactory.getStatistics();
+        id = given()
+          .contentType(ContentType.JSON)
+          .body("{\"nome\":\"Cacheado\",\"detalhes\":\"Fabricante do teste de cache\"}")
+          .when().post("/fabricantes")
+          .then()
+             .statusCode(201)
+             .extract().path("id");
+        sessionFactory.getCache().evictEntityData(Fabricante.class, id.longValue());
+    }
+
+    @AfterEach
+    void removerFabricante() {
+        if (id != null) {
+            given().when().delete("/fabricantes/" + id);
+        }
+    }
+
+    @Test
+    void testFindByIdRepetidoVemDoCache() {
+        CacheRegionStatistics regiao = statistics.getCacheRegionStatistics(REGIAO);
+        long misses = regiao.getMissCount();
+        long puts = regiao.getPutCount();
+        long hits = regiao.getHitCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals("Cacheado", buscar().nome);
+        assertEquals(misses + 1, regiao.getMissCount());
+        assertEquals(puts + 1, regiao.getPutCount());
+        assertEquals(statements + 1, statistics.getPrepareStatementCount());
+
+        assertEquals("Cacheado", buscar().nome);
+        assertEquals(hits + 1, regiao.getHitCount());
+        assertEquals(statements + 1, statistics.getPrepareStatementCount(), "A segunda leitura não deve ir ao banco");
+    }
+
+    @Test
+    void testGetAllRepetidoVemDoCacheDeConsultas() {
+        listar();
+        long queryHits = statistics.getQueryCacheHitCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        listar().body("nome", hasItem("Cacheado"));
+        assertEquals(queryHits + 1, statistics.getQueryCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount(), "O getAll repetido não deve ir ao banco");
+    }
+
+    @Test
+    void testUpdateInvalidaACacheDeConsultasEAtualizaAEntidade() {
+        listar();
+        buscar();
+
+        given()
+          .contentType(ContentType.JSON)
+          .body("{\"nome\":\"Recacheado\",\"detalhes\":\"Alterado\"}")
+          .when().put("/fabricantes/" + id)
+          .then()
+             .statusCode(200);
+
+        long queryMisses = statistics.getQueryCacheMissCount();
+        listar()
+             .body("nome", hasItem("Recacheado"))
+             .body("nome", not(hasItem("Cacheado")));
+        assertEquals(queryMisses + 1, statistics.getQueryCacheMissCount(), "O update deve invalidar o resultado do getAll");
+
+        Fabricante fabricante = buscar();
+        assertEquals("Recacheado", fabricante.nome);
+        assertEquals(1, fabricante.versao);
+    }
+
+    @Test
+    void testDeleteInvalidaACacheDeConsultasEAEntidade() {
+        listar();
+        buscar();
+
+        given()
+          .when().delete("/fabricantes/" + id)
+          .then()
+             .statusCode(204);
+        Integer removido = id;
+        id = null;
+
+        long queryMisses = statistics.getQueryCacheMissCount();
+        List<Integer> ids = listar().extract().path("id");
+        assertEquals(queryMisses + 1, statistics.getQueryCacheMissCount(), "O delete deve invalidar o resultado do getAll");
+        assertFalse(ids.contains(removido));
+
+        assertNull(QuarkusTransaction.requiringNew().call(() -> Fabricante.findById(removido.longValue())));
+    }
+
+    @Test
+    void testAdminCacheReportaAcertosEFalhas() {
+        JsonPath antes = estatisticas();
+
+        buscar();
+        buscar();
+
+        JsonPath depois = estatisticas();
+        assertEquals(antes.getLong("Hits") + 1, depois.getLong("Hits"));
+        assertEquals(antes.getLong("Misses") + 1, depois.getLong("Misses"));
+        assertEquals(antes.getLong("Puts") + 1, depois.getLong("Puts"));
+        String regiao = "Regions.find { it.Name == '" + REGIAO + "' }";
+        assertEquals(antes.getLong(regiao + ".Hits") + 1, depois.getLong(regiao + ".Hits"));
+        assertEquals(antes.getLong(regiao + ".Misses") + 1, depois.getLong(regiao + ".Misses"));
+
+        listar();
+        listar();
+        JsonPath consultas = estatisticas();
+        assertEquals(depois.getLong("QueryCacheHits") + 1, consultas.getLong("QueryCacheHits"));
+    }
+
+    private Fabricante buscar() {
+        return QuarkusTransaction.requiringNew().call(() -> Fabricante.<Fabricante>findById(id.longValue()));
+    }
+
+    private static ValidatableResponse listar() {
+        return given()
+          .when().get("/fabricantes")
+          .then()
+             .statusCode(200);
+    }
+
+    private static JsonPath estatisticas() {
+        return given()
+          .when().get("/admin/cache")
+          .then()
+             .statusCode(200)
+             .body("Regions.Name", hasItem(REGIAO))
+             .extract().jsonPath();
+    }
+}
@@ -0,0 +1,129 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Com limite de 1 ns todo comando do datasource vai para o log de consultas lentas, inclusive
+ * os que não passam pelo HQL das buscas: o índice textual, o resumo e a importação em lote.
+ */
+@QuarkusTest
+@TestProfile(SlowQueryLogTest.TudoELento.class)
+class SlowQueryLogTest {
+
+    public static class TudoELento implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("slow-query.threshold", "PT0.000000001S");
+        }
+    }
+
+    private static final Logger LOG = Logger.getLogger(SlowQueryLog.class.getName());
+
+    private final List<String> mensagens = new CopyOnWriteArrayList<>();
+
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            mensagens.add(String.valueOf(record.getParameters() == null
+                    ? record.getMessage() : String.format(record.getMessage(), record.getParameters())));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Inject
+    DataSource dataSource;
+
+    @BeforeEach
+    void capturarLog() {
+        LOG.addHandler(handler);
+    }
+
+    @AfterEach
+    void removerCaptura() throws SQLException {
+        LOG.removeHandler(handler);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement delete = connection.prepareStatement("delete from Carro where modelo like ?")) {
+            delete.setString(1, "Lento %");
+            delete.executeUpdate();
+        }
+    }
+
+    @Test
+    void testBuscaTextualPorRelevancia() {
+        given()
+          .when().get("/fabricantes/search?q=alta&sort=relevance")
+          .then()
+             .statusCode(200);
+
+        assertLogged("FTL_SEARCH_DATA");
+    }
+
+    @Test
+    void testResumo() {
+        given()
+          .when().get("/carros/1/resumo")
+          .then()
+             .statusCode(200);
+
+        assertLogged("resumocarro");
+    }
+
+    @Test
+    void testImportacaoEmLote() {
+        given()
+          .contentType(EntityStreamer.NDJSON)
+          .body("{\"modelo\":\"Lento A\",\"paisDeMontagem\":\"Brasil\"}\n".getBytes(StandardCharsets.UTF_8))
+          .when().post("/carros/bulk")
+          .then()
+             .statusCode(200)
+             .body("Succeeded", is(1));
+
+        assertLogged("insert into carro");
+    }
+
+    @Test
+    void testJdbcDiretoComParametros() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement("update Carro set modelo = modelo where id = ?")) {
+            update.setLong(1, 1L);
+            update.executeUpdate();
+        }
+
+        assertLogged("1 linha(s)): update Carro set modelo = modelo where id = ?; parâmetros=[1]");
+    }
+
+    private void assertLogged(String fragmento) {
+        String esperado = fragmento.toLowerCase();
+        assertTrue(mensagens.stream().anyMatch(m -> m.toLowerCase().contains(esperado)),
+                () -> "nenhum comando com '" + fragmento + "' no log: " + mensagens);
+    }
+}
@@ -0,0 +1,102 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class SparseFieldsTest {
+
+    @BeforeEach
+    void clearStatements() {
+        SqlCapture.clear();
+    }
+
+    @Test
+    void testGetAllCarrosReadsOnlyRequestedColumns() {
+        List<Map<String, Object>> carros = given()
+          .queryParam("fields", "modelo,paisDeMontagem")
+          .when().get("/carros")
+          .then()
+             .statusCode(200)
+             .body("size()", is(5))
+             .extract().jsonPath().getList("$");
+
+        carros.forEach(carro -> assertEquals(Set.of("id", "modelo", "paisDeMontagem"), carro.keySet()));
+
+        String sql = SqlCapture.last("select", "from carro").toLowerCase();
+        assertFalse(sql.contains("nomecompletoversao"), sql);
+        assertFalse(sql.contains("join"), sql);
+    }
+
+    @Test
+    void testSearchAcessoriosSkipsCarroJoinAndKeepsCursor() {
+        JsonPath first = given()
+          .queryParam("fields", "nome,carroId")
+          .queryParam("sort", "valor")
+          .queryParam("size", 2)
+          .when().get("/acessorios/search")
+          .then()
+             .statusCode(200)
+             .body("Acessorios.size()", is(2))
+             .body("Acessorios[0].carroId", notNullValue())
+             .body("NextCursor", notNullValue())
+             .extract().jsonPath();
+
+        List<Map<String, Object>> acessorios = first.getList("Acessorios");
+        acessorios.forEach(a -> assertEquals(Set.of("id", "nome", "carroId", "valor"), a.keySet()));
+        String sql = SqlCapture.last("select", "from acessorio").toLowerCase();
+        assertFalse(sql.contains("join"), sql);
+        assertFalse(sql.contains("descricao"), sql);
+
+        JsonPath second = given()
+          .queryParam("fields", "nome,carroId")
+          .queryParam("sort", "valor")
+          .queryParam("size", 2)
+          .queryParam("cursor", first.getString("NextCursor"))
+          .when().get("/acessorios/search")
+          .then()
+             .statusCode(200)
+             .body("Acessorios.size()", is(2))
+             .extract().jsonPath();
+
+        assertTrue(second.getDouble("Acessorios[0].valor") >= first.getDouble("Acessorios[1].valor"));
+        assertFalse(first.getList("Acessorios.id").contains(second.getInt("Acessorios[0].id")));
+    }
+
+    @Test
+    void testSearchFabricantesByRelevance() {
+        given()
+          .queryParam("q", "bosch")
+          .queryParam("sort", "relevance")
+          .queryParam("fields", "nome")
+          .when().get("/fabricantes/search")
+          .then()
+             .statusCode(200)
+             .body("Fabricantes[0].nome", is("BOSCH"))
+             .body("Fabricantes[0].detalhes", is((Object) null));
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        given()
+          .queryParam("fields", "modelo,acessorios")
+          .when().get("/carros/search")
+          .then()
+             .statusCode(400)
+             .body(containsString("acessorios"));
+    }
+}
@@ -0,0 +1,65 @@
+package org.acme;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Guarda os comandos SQL gerados pelo Hibernate durante os testes
+ * (registrado no perfil test de application.properties).
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final ConcurrentLinkedQueue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Último comando capturado que contém todos os trechos informados (sem diferenciar maiúsculas).
+     */
+    static String last(String... fragments) {
+        List<String> statements = new ArrayList<>(STATEMENTS);
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            String sql = statements.get(i).toLowerCase();
+            if (Arrays.stream(fragments).allMatch(fragment -> sql.contains(fragment.toLowerCase()))) {
+                return statements.get(i);
+            }
+        }
+        throw new AssertionError("Nenhum comando SQL capturado contém " + Arrays.toString(fragments) + ": " + statements);
+    }
+
+    /**
+     * Quantidade de comandos capturados que contêm todos os trechos informados.
+     */
+    static long count(String... fragments) {
+        return STATEMENTS.stream()
+                .map(String::toLowerCase)
+                .filter(sql -> Arrays.stream(fragments).allMatch(fragment -> sql.contains(fragment.toLowerCase())))
+                .count();
+    }
+
+    /**
+     * Comandos capturados até o primeiro que contém o trecho informado, sem incluí-lo.
+     */
+    static List<String> before(String fragment) {
+        List<String> statements = new ArrayList<>();
+        for (String sql : STATEMENTS) {
+            if (sql.toLowerCase().contains(fragment.toLowerCase())) {
+                return statements;
+            }
+            statements.add(sql);
+        }
+        throw new AssertionError("Nenhum comando SQL capturado contém " + fragment);
+    }
+}
@@ -0,0 +1,54 @@
+package org.acme;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestProfile(StreamingTest.LotesPequenos.class)
+class StreamingTest {
+
+    static final int FETCH_SIZE = 2;
+
+    public static class LotesPequenos implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("stream.fetch-size", String.valueOf(FETCH_SIZE));
+        }
+    }
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @BeforeEach
+    void clearCaches() {
+        sessionFactory.getCache().evictAllRegions();
+        SqlCapture.clear();
+    }
+
+    @Test
+    void testStreamAcessoriosLoadsFabricantesOncePerChunk() {
+        List<Map<String, Object>> acessorios = given()
+          .when().get("/acessorios/stream")
+          .then()
+             .statusCode(200)
+             .extract().jsonPath().getList("$");
+
+        assertTrue(acessorios.size() > FETCH_SIZE, "O teste precisa de mais de um lote");
+        assertTrue(acessorios.stream().anyMatch(a -> !((List<?>) a.get("fabricantes")).isEmpty()));
+
+        long chunks = (acessorios.size() + FETCH_SIZE - 1) / FETCH_SIZE;
+        assertEquals(chunks, SqlCapture.count("from acessorio_fabricante"));
+    }
+}